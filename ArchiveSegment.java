@@ -0,0 +1,262 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An immutable, compressed file of archived items. Records in a segment are
+ * sorted by item ID (case insensitive, matching the live inventory lookups)
+ * and grouped into small blocks that are compressed independently. A sparse
+ * index at the end of the file records the first ID, file position and
+ * purchase date range of every block, so a lookup only reads the index once
+ * and then decompresses the single block that may contain the wanted record.
+ *
+ * File layout: {@code [block]... [index] [index offset][magic]}.
+ */
+final class ArchiveSegment {
+    private static final int MAGIC = 0x55494153; // "UIAS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FOOTER_LENGTH = Long.BYTES + Integer.BYTES;
+
+    // Number of records compressed together; one block is read per ID lookup
+    static final int BLOCK_SIZE = 32;
+
+    private final Path file;
+    private final int recordCount;
+    private final String lastId;
+    private final String[] firstIds;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final long[] minPurchaseDays;
+    private final long[] maxPurchaseDays;
+
+    private ArchiveSegment(Path file, int recordCount, String lastId, String[] firstIds, long[] offsets,
+            int[] lengths, long[] minPurchaseDays, long[] maxPurchaseDays) {
+        this.file = file;
+        this.recordCount = recordCount;
+        this.lastId = lastId;
+        this.firstIds = firstIds;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.minPurchaseDays = minPurchaseDays;
+        this.maxPurchaseDays = maxPurchaseDays;
+    }
+
+    /**
+     * Writes a new segment containing the given records. The file is written
+     * under a temporary name and moved into place once complete, so readers
+     * never observe a partially written segment.
+     *
+     * @param file    destination of the segment
+     * @param records records to store; the list is sorted in place by item ID
+     * @return the opened segment
+     * @throws IOException if the segment cannot be written
+     */
+    static ArchiveSegment write(Path file, List<ArchivedItem> records) throws IOException {
+        records.sort((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.getItem().getId(), b.getItem().getId()));
+        int blockCount = (records.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        String[] firstIds = new String[blockCount];
+        long[] offsets = new long[blockCount];
+        int[] lengths = new int[blockCount];
+        long[] minDays = new long[blockCount];
+        long[] maxDays = new long[blockCount];
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream fileOut = Files.newOutputStream(temp);
+                DataOutputStream out = new DataOutputStream(fileOut)) {
+            long position = 0;
+            for (int b = 0; b < blockCount; b++) {
+                int from = b * BLOCK_SIZE;
+                int to = Math.min(from + BLOCK_SIZE, records.size());
+                long min = Long.MAX_VALUE;
+                long max = Long.MIN_VALUE;
+                for (int i = from; i < to; i++) {
+                    long day = records.get(i).getItem().getPurchaseDate().toEpochDay();
+                    min = Math.min(min, day);
+                    max = Math.max(max, day);
+                }
+                byte[] block = compressBlock(records.subList(from, to));
+                out.write(block);
+                firstIds[b] = records.get(from).getItem().getId();
+                offsets[b] = position;
+                lengths[b] = block.length;
+                minDays[b] = min;
+                maxDays[b] = max;
+                position += block.length;
+            }
+            String lastId = records.isEmpty() ? "" : records.get(records.size() - 1).getItem().getId();
+            // sparse index
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(records.size());
+            out.writeUTF(lastId);
+            out.writeInt(blockCount);
+            for (int b = 0; b < blockCount; b++) {
+                out.writeUTF(firstIds[b]);
+                out.writeLong(offsets[b]);
+                out.writeInt(lengths[b]);
+                out.writeLong(minDays[b]);
+                out.writeLong(maxDays[b]);
+            }
+            // footer
+            out.writeLong(position);
+            out.writeInt(MAGIC);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(file);
+    }
+
+    /**
+     * Opens an existing segment by reading only its sparse index. Blocks are
+     * read and decompressed on demand by the lookup methods.
+     *
+     * @param file the segment file
+     * @return the opened segment
+     * @throws IOException if the file is not a valid segment
+     */
+    static ArchiveSegment open(Path file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            long length = raf.length();
+            if (length < FOOTER_LENGTH) {
+                throw new IOException("Archive segment is truncated: " + file);
+            }
+            raf.seek(length - FOOTER_LENGTH);
+            long indexOffset = raf.readLong();
+            if (raf.readInt() != MAGIC || indexOffset < 0 || indexOffset > length - FOOTER_LENGTH) {
+                throw new IOException("Not an archive segment: " + file);
+            }
+            byte[] indexBytes = new byte[(int) (length - FOOTER_LENGTH - indexOffset)];
+            raf.seek(indexOffset);
+            raf.readFully(indexBytes);
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(indexBytes));
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported archive segment version " + version + ": " + file);
+            }
+            int recordCount = in.readInt();
+            String lastId = in.readUTF();
+            int blockCount = in.readInt();
+            String[] firstIds = new String[blockCount];
+            long[] offsets = new long[blockCount];
+            int[] lengths = new int[blockCount];
+            long[] minDays = new long[blockCount];
+            long[] maxDays = new long[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                firstIds[b] = in.readUTF();
+                offsets[b] = in.readLong();
+                lengths[b] = in.readInt();
+                minDays[b] = in.readLong();
+                maxDays[b] = in.readLong();
+            }
+            return new ArchiveSegment(file, recordCount, lastId, firstIds, offsets, lengths, minDays, maxDays);
+        }
+    }
+
+    /**
+     * Returns the number of records stored in this segment.
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Finds an archived item by ID (case insensitive). At most one block is
+     * decompressed.
+     *
+     * @param id the item ID
+     * @return the archived item, or null if this segment does not contain it
+     * @throws IOException if the block cannot be read
+     */
+    ArchivedItem findById(String id) throws IOException {
+        if (firstIds.length == 0 || String.CASE_INSENSITIVE_ORDER.compare(id, firstIds[0]) < 0
+                || String.CASE_INSENSITIVE_ORDER.compare(id, lastId) > 0) {
+            return null;
+        }
+        // binary search for the last block whose first ID is not after the wanted ID
+        int low = 0;
+        int high = firstIds.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(firstIds[mid], id) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        for (ArchivedItem record : readBlock(low)) {
+            if (record.getItem().getId().equalsIgnoreCase(id)) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds every archived item purchased within the given range (inclusive) to
+     * the result list. Blocks whose purchase date range does not overlap the
+     * query are skipped without being read.
+     *
+     * @param from   earliest purchase date
+     * @param to     latest purchase date
+     * @param result list receiving the matches
+     * @throws IOException if a block cannot be read
+     */
+    void findByPurchaseDate(LocalDate from, LocalDate to, List<ArchivedItem> result) throws IOException {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        for (int b = 0; b < firstIds.length; b++) {
+            if (maxPurchaseDays[b] < fromDay || minPurchaseDays[b] > toDay) {
+                continue;
+            }
+            for (ArchivedItem record : readBlock(b)) {
+                long day = record.getItem().getPurchaseDate().toEpochDay();
+                if (day >= fromDay && day <= toDay) {
+                    result.add(record);
+                }
+            }
+        }
+    }
+
+    private List<ArchivedItem> readBlock(int block) throws IOException {
+        byte[] compressed = new byte[lengths[block]];
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            raf.seek(offsets[block]);
+            raf.readFully(compressed);
+        }
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new ByteArrayInputStream(compressed)))) {
+            int count = in.readInt();
+            List<ArchivedItem> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                LocalDate retiredOn = LocalDate.ofEpochDay(in.readLong());
+                InventoryItem item = ItemCodec.readItem(in);
+                item.setAvailable(false); // retired items can never be assigned
+                records.add(new ArchivedItem(item, retiredOn));
+            }
+            return records;
+        }
+    }
+
+    private static byte[] compressBlock(List<ArchivedItem> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(records.size());
+            for (ArchivedItem record : records) {
+                out.writeLong(record.getRetiredOn().toEpochDay());
+                ItemCodec.writeItem(out, record.getItem());
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
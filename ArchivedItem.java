@@ -0,0 +1,42 @@
+import java.time.LocalDate;
+
+/**
+ * An inventory item that has been decommissioned and moved out of the live
+ * inventory into the archive. Archived items are kept only for auditing, so
+ * they pair the original item details with the date on which the item was
+ * retired and are never assigned again.
+ */
+public class ArchivedItem {
+    private final InventoryItem item;
+    private final LocalDate retiredOn;
+
+    /**
+     * Constructs a new archived item.
+     *
+     * @param item      the retired inventory item
+     * @param retiredOn date the item was retired
+     */
+    public ArchivedItem(InventoryItem item, LocalDate retiredOn) {
+        this.item = item;
+        this.retiredOn = retiredOn;
+    }
+
+    /**
+     * Returns the retired inventory item.
+     */
+    public InventoryItem getItem() {
+        return item;
+    }
+
+    /**
+     * Returns the date the item was retired.
+     */
+    public LocalDate getRetiredOn() {
+        return retiredOn;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Retired %s] %s", retiredOn, item);
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding for item attributes that repeat across many items, such
+ * as names, brands, materials and lab types. Each distinct value is stored
+ * once and items keep only its small integer code, so hundreds of thousands
+ * of items with a few dozen distinct brands share a few dozen strings. Codes
+ * are assigned in order of first use starting at zero, which lets reports
+ * group and filter items using arrays indexed by code instead of comparing
+ * strings.
+ *
+ * Values are matched exactly; "Dell" and "dell" receive different codes.
+ */
+public final class AttributeDictionary {
+    /** Item names. */
+    public static final AttributeDictionary NAMES = new AttributeDictionary();
+    /** Equipment brands. */
+    public static final AttributeDictionary BRANDS = new AttributeDictionary();
+    /** Furniture materials. */
+    public static final AttributeDictionary MATERIALS = new AttributeDictionary();
+    /** Lab equipment lab types. */
+    public static final AttributeDictionary LAB_TYPES = new AttributeDictionary();
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    // values[code]; replaced (never modified in place below size) when it grows
+    private volatile String[] values = new String[16];
+    private volatile int size;
+
+    private AttributeDictionary() {
+    }
+
+    /**
+     * Returns the code for the given value, adding the value to the dictionary
+     * if it has not been seen before.
+     *
+     * @param value the attribute value
+     * @return the code of the value
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int next = size;
+            String[] table = values;
+            if (next == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[next] = value;
+            // publish the table before the new size and code become visible
+            values = table;
+            size = next + 1;
+            codes.put(value, next);
+            return next;
+        }
+    }
+
+    /**
+     * Returns the value for the given code.
+     *
+     * @param code a code returned by {@link #encode}
+     * @return the attribute value
+     */
+    public String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * Returns the number of distinct values, which is also one more than the
+     * largest code handed out so far.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the code of the given value without adding it.
+     *
+     * @return the code, or -1 if the value is not in the dictionary
+     */
+    public int codeOf(String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Returns which codes stand for values equal to the given one, ignoring
+     * case. The result is indexed by code; codes added after the call are not
+     * covered by it.
+     *
+     * @param value the value to match
+     * @return flags indexed by code, true where the value matches
+     */
+    public boolean[] matchIgnoreCase(String value) {
+        int count = size;
+        String[] table = values;
+        boolean[] matches = new boolean[count];
+        for (int code = 0; code < count; code++) {
+            matches[code] = table[code].equalsIgnoreCase(value);
+        }
+        return matches;
+    }
+}
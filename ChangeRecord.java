@@ -0,0 +1,188 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One change to the inventory, as shipped from a primary to its read
+ * replicas. Replicas apply records in sequence order through
+ * {@link UniversityInventorySystem#applyChange}, which reproduces the
+ * primary's arrays exactly, so items and staff are identified by their
+ * position in the arrays (with the ID carried along as a consistency check).
+ *
+ * Every record carries the primary's sequence number and the time the change
+ * was made there. Heartbeats carry the primary's latest sequence number so a
+ * replica can tell how far behind it is even while no changes arrive.
+ */
+final class ChangeRecord {
+
+    /**
+     * Kinds of change.
+     */
+    enum Type {
+        /** Start of a full copy of the primary: clear the store. */
+        RESET,
+        /** Part of a full copy: create a room, so rooms are listed in the primary's order. */
+        ADD_ROOM,
+        ADD_ITEM,
+        REGISTER_STAFF,
+        ASSIGN,
+        RETURN,
+        RETIRE,
+        MOVE,
+        /** No change; reports the primary's latest sequence number. */
+        HEARTBEAT
+    }
+
+    final Type type;
+    final long sequence;
+    final long timestamp;
+    // Payload; which fields are used depends on the type
+    final InventoryItem item;
+    final int itemIndex;
+    final String itemId;
+    final int staffIndex;
+    final String staffId;
+    final String text;
+
+    private ChangeRecord(Type type, long sequence, long timestamp, InventoryItem item, int itemIndex, String itemId,
+            int staffIndex, String staffId, String text) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.item = item;
+        this.itemIndex = itemIndex;
+        this.itemId = itemId;
+        this.staffIndex = staffIndex;
+        this.staffId = staffId;
+        this.text = text;
+    }
+
+    /**
+     * Clears the store and sizes it like the primary's. The capacities travel
+     * in the index fields.
+     */
+    static ChangeRecord reset(long sequence, int maxInventory, int maxStaff) {
+        return new ChangeRecord(Type.RESET, sequence, System.currentTimeMillis(), null, maxInventory, null, maxStaff,
+                null, null);
+    }
+
+    /**
+     * Creates a room if it does not exist yet.
+     *
+     * @param roomPath campus/building/floor/room
+     */
+    static ChangeRecord addRoom(long sequence, String roomPath) {
+        return new ChangeRecord(Type.ADD_ROOM, sequence, System.currentTimeMillis(), null, -1, null, -1, null,
+                roomPath);
+    }
+
+    /**
+     * Adds an item (a copy of it is shipped), placed in the given room.
+     *
+     * @param roomPath campus/building/floor/room, or null if the item is not placed
+     */
+    static ChangeRecord addItem(long sequence, InventoryItem item, String roomPath) {
+        return new ChangeRecord(Type.ADD_ITEM, sequence, System.currentTimeMillis(), item.copy(), -1, item.getId(),
+                -1, null, roomPath);
+    }
+
+    /**
+     * Registers a staff member.
+     */
+    static ChangeRecord registerStaff(long sequence, StaffMember staff) {
+        return new ChangeRecord(Type.REGISTER_STAFF, sequence, System.currentTimeMillis(), null, -1, null, -1,
+                staff.getStaffId(), staff.getName());
+    }
+
+    /**
+     * Assigns the item at the given position to the staff member at the
+     * given position, or returns it when the type is {@link Type#RETURN}.
+     */
+    static ChangeRecord assignment(Type type, long sequence, int itemIndex, String itemId, int staffIndex,
+            String staffId) {
+        return new ChangeRecord(type, sequence, System.currentTimeMillis(), null, itemIndex, itemId, staffIndex,
+                staffId, null);
+    }
+
+    /**
+     * Retires the item at the given position.
+     */
+    static ChangeRecord retire(long sequence, int itemIndex, String itemId) {
+        return new ChangeRecord(Type.RETIRE, sequence, System.currentTimeMillis(), null, itemIndex, itemId, -1, null,
+                null);
+    }
+
+    /**
+     * Moves the item at the given position to another room.
+     */
+    static ChangeRecord move(long sequence, int itemIndex, String itemId, String roomPath) {
+        return new ChangeRecord(Type.MOVE, sequence, System.currentTimeMillis(), null, itemIndex, itemId, -1, null,
+                roomPath);
+    }
+
+    /**
+     * Reports the primary's latest sequence number.
+     */
+    static ChangeRecord heartbeat(long sequence) {
+        return new ChangeRecord(Type.HEARTBEAT, sequence, System.currentTimeMillis(), null, -1, null, -1, null,
+                null);
+    }
+
+    /**
+     * Writes the record to the output.
+     *
+     * @throws IOException if the output cannot be written
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeByte(type.ordinal());
+        out.writeLong(sequence);
+        out.writeLong(timestamp);
+        out.writeBoolean(item != null);
+        if (item != null) {
+            ItemCodec.writeItem(out, item);
+        }
+        out.writeInt(itemIndex);
+        writeNullable(out, itemId);
+        out.writeInt(staffIndex);
+        writeNullable(out, staffId);
+        writeNullable(out, text);
+    }
+
+    /**
+     * Reads a record written by {@link #write}.
+     *
+     * @throws IOException if the input is truncated or malformed
+     */
+    static ChangeRecord read(DataInput in) throws IOException {
+        int typeIndex = in.readUnsignedByte();
+        if (typeIndex >= Type.values().length) {
+            throw new IOException("Unknown change record type: " + typeIndex);
+        }
+        Type type = Type.values()[typeIndex];
+        long sequence = in.readLong();
+        long timestamp = in.readLong();
+        InventoryItem item = in.readBoolean() ? ItemCodec.readItem(in) : null;
+        int itemIndex = in.readInt();
+        String itemId = readNullable(in);
+        int staffIndex = in.readInt();
+        String staffId = readNullable(in);
+        String text = readNullable(in);
+        return new ChangeRecord(type, sequence, timestamp, item, itemIndex, itemId, staffIndex, staffId, text);
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Override
+    public String toString() {
+        return type + " #" + sequence;
+    }
+}
@@ -6,7 +6,7 @@ import java.time.LocalDate;
  * information and inherits common inventory properties from {@link InventoryItem}.
  */
 public class Equipment extends InventoryItem {
-    private String brand;
+    private int brandCode;
 
     /**
      * Constructs a new equipment item.
@@ -20,14 +20,26 @@ public class Equipment extends InventoryItem {
      */
     public Equipment(String id, String name, String brand, LocalDate purchaseDate, double price, LocalDate warrantyEnd) {
         super(id, name, purchaseDate, price, warrantyEnd);
-        this.brand = brand;
+        this.brandCode = AttributeDictionary.BRANDS.encode(brand);
+    }
+
+    private Equipment(Equipment other) {
+        super(other);
+        this.brandCode = other.brandCode;
     }
 
     /**
      * Returns the brand of the equipment.
      */
     public String getBrand() {
-        return brand;
+        return AttributeDictionary.BRANDS.decode(brandCode);
+    }
+
+    /**
+     * Returns the dictionary code of the brand.
+     */
+    public int getBrandCode() {
+        return brandCode;
     }
 
     /**
@@ -41,9 +53,14 @@ public class Equipment extends InventoryItem {
         return getPrice() * 0.05; // 5% of the purchase price
     }
 
+    @Override
+    public Equipment copy() {
+        return new Equipment(this);
+    }
+
     @Override
     public String toString() {
-        return String.format("[Equipment] %s, Brand: %s, Maintenance Fee: %.2f", super.toString(), brand,
+        return String.format("[Equipment] %s, Brand: %s, Maintenance Fee: %.2f", super.toString(), getBrand(),
                 getMaintenanceFee());
     }
 }
\ No newline at end of file
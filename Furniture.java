@@ -6,7 +6,7 @@ import java.time.LocalDate;
  * overrides the maintenance calculation from {@link InventoryItem}.
  */
 public class Furniture extends InventoryItem {
-    private String material;
+    private int materialCode;
 
     /**
      * Constructs a new furniture item.
@@ -21,14 +21,26 @@ public class Furniture extends InventoryItem {
     public Furniture(String id, String name, String material, LocalDate purchaseDate, double price,
             LocalDate warrantyEnd) {
         super(id, name, purchaseDate, price, warrantyEnd);
-        this.material = material;
+        this.materialCode = AttributeDictionary.MATERIALS.encode(material);
+    }
+
+    private Furniture(Furniture other) {
+        super(other);
+        this.materialCode = other.materialCode;
     }
 
     /**
      * Returns the material of the furniture.
      */
     public String getMaterial() {
-        return material;
+        return AttributeDictionary.MATERIALS.decode(materialCode);
+    }
+
+    /**
+     * Returns the dictionary code of the material.
+     */
+    public int getMaterialCode() {
+        return materialCode;
     }
 
     /**
@@ -43,9 +55,14 @@ public class Furniture extends InventoryItem {
         return getPrice() * 0.02; // 2% of the purchase price
     }
 
+    @Override
+    public Furniture copy() {
+        return new Furniture(this);
+    }
+
     @Override
     public String toString() {
-        return String.format("[Furniture] %s, Material: %s, Maintenance Fee: %.2f", super.toString(), material,
+        return String.format("[Furniture] %s, Material: %s, Maintenance Fee: %.2f", super.toString(), getMaterial(),
                 getMaintenanceFee());
     }
 }
\ No newline at end of file
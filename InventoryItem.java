@@ -6,15 +6,18 @@ import java.time.LocalDate;
  * Each inventory item has a unique identifier, name, purchase date, price and
  * warranty information. Derived classes should implement {@code getMaintenanceFee()}
  * to calculate the appropriate maintenance cost for that item type. This class
- * also tracks whether the item is currently available for assignment.
+ * also tracks whether the item is currently available for assignment. The name
+ * is kept as a code in {@link AttributeDictionary#NAMES}, as many items share
+ * the same name.
  */
 public abstract class InventoryItem {
     private String id;
-    private String name;
+    private int nameCode;
     private LocalDate purchaseDate;
     private double price;
     private LocalDate warrantyEndDate;
     private boolean available;
+    private Location location;
 
     /**
      * Constructs a new inventory item.
@@ -27,13 +30,29 @@ public abstract class InventoryItem {
      */
     public InventoryItem(String id, String name, LocalDate purchaseDate, double price, LocalDate warrantyEnd) {
         this.id = id;
-        this.name = name;
+        this.nameCode = AttributeDictionary.NAMES.encode(name);
         this.purchaseDate = purchaseDate;
         this.price = price;
         this.warrantyEndDate = warrantyEnd;
         this.available = true; // items are available by default when added
     }
 
+    /**
+     * Constructs a copy of another item, including its availability. Used by
+     * the {@link #copy()} implementations.
+     *
+     * @param other the item to copy
+     */
+    protected InventoryItem(InventoryItem other) {
+        this.id = other.id;
+        this.nameCode = other.nameCode;
+        this.purchaseDate = other.purchaseDate;
+        this.price = other.price;
+        this.warrantyEndDate = other.warrantyEndDate;
+        this.available = other.available;
+        this.location = other.location;
+    }
+
     /**
      * Returns the unique identifier of the item.
      */
@@ -45,7 +64,14 @@ public abstract class InventoryItem {
      * Returns the descriptive name of the item.
      */
     public String getName() {
-        return name;
+        return AttributeDictionary.NAMES.decode(nameCode);
+    }
+
+    /**
+     * Returns the dictionary code of the item's name.
+     */
+    public int getNameCode() {
+        return nameCode;
     }
 
     /**
@@ -83,13 +109,29 @@ public abstract class InventoryItem {
         this.available = available;
     }
 
+    /**
+     * Returns the room the item is kept in, or null if it has not been placed.
+     */
+    public Location getLocation() {
+        return location;
+    }
+
+    /**
+     * Records the room the item is kept in. Called by {@link LocationIndex},
+     * which must be used to place and move items.
+     */
+    void setLocation(Location location) {
+        this.location = location;
+    }
+
     /**
      * Returns a string representation of the item, including key details.
      */
     @Override
     public String toString() {
-        return String.format("ID: %s, Name: %s, Price: %.2f, Purchased: %s, Warranty End: %s, Available: %s", id, name, price,
-                purchaseDate, warrantyEndDate, available);
+        String details = String.format("ID: %s, Name: %s, Price: %.2f, Purchased: %s, Warranty End: %s, Available: %s",
+                id, getName(), price, purchaseDate, warrantyEndDate, available);
+        return location == null ? details : details + ", Location: " + location.getPath();
     }
 
     /**
@@ -99,4 +141,13 @@ public abstract class InventoryItem {
      * @return calculated maintenance fee
      */
     public abstract double getMaintenanceFee();
+
+    /**
+     * Returns a detached copy of this item, including its current availability.
+     * Copies are used for point-in-time snapshots of the inventory and are not
+     * modified afterwards.
+     *
+     * @return copy of the item
+     */
+    public abstract InventoryItem copy();
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+import java.util.function.Predicate;
+
+/**
+ * A consistent, read-only view of the inventory and staff at one point in
+ * time. Every change to the live inventory publishes a new snapshot with a
+ * higher version number; reports and searches take the latest snapshot and
+ * work on it without any locking, so they never see a half-finished
+ * assignment and never hold up assignments or returns in progress.
+ *
+ * Snapshots hold detached copies of the items and staff members. A new
+ * version shares everything except the entries that changed with the version
+ * before it (see {@link PersistentArray}).
+ */
+public final class InventorySnapshot {
+    static final InventorySnapshot EMPTY = new InventorySnapshot(0, PersistentArray.empty(),
+            PersistentArray.empty());
+
+    private final long version;
+    private final PersistentArray<InventoryItem> items;
+    private final PersistentArray<StaffMember> staff;
+
+    private InventorySnapshot(long version, PersistentArray<InventoryItem> items, PersistentArray<StaffMember> staff) {
+        this.version = version;
+        this.items = items;
+        this.staff = staff;
+    }
+
+    /**
+     * Returns the version of this snapshot. Versions increase by one with
+     * every published change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of items in the inventory.
+     */
+    public int getItemCount() {
+        return items.size();
+    }
+
+    /**
+     * Returns the item at the given position, in inventory order.
+     */
+    public InventoryItem getItem(int index) {
+        return items.get(index);
+    }
+
+    /**
+     * Returns the number of registered staff members.
+     */
+    public int getStaffCount() {
+        return staff.size();
+    }
+
+    /**
+     * Returns the staff member at the given position, in registration order.
+     */
+    public StaffMember getStaff(int index) {
+        return staff.get(index);
+    }
+
+    /**
+     * Finds an item by its ID (case insensitive).
+     *
+     * @return the item, or null if there is no item with this ID
+     */
+    public InventoryItem findItemById(String id) {
+        for (int i = 0; i < items.size(); i++) {
+            InventoryItem item = items.get(i);
+            if (item.getId().equalsIgnoreCase(id)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds items by name (case insensitive). The name is looked up once in
+     * the name dictionary and items are then matched by code.
+     *
+     * @return an array of matches
+     */
+    public InventoryItem[] findItemsByName(String name) {
+        boolean[] matches = AttributeDictionary.NAMES.matchIgnoreCase(name);
+        return filter(item -> isMatch(matches, item.getNameCode()));
+    }
+
+    /**
+     * Finds equipment of the given brand, furniture of the given material and
+     * lab equipment of the given lab type (case insensitive), matching items
+     * by dictionary code.
+     *
+     * @return an array of matches
+     */
+    public InventoryItem[] findItemsByCategory(String value) {
+        boolean[] brands = AttributeDictionary.BRANDS.matchIgnoreCase(value);
+        boolean[] materials = AttributeDictionary.MATERIALS.matchIgnoreCase(value);
+        boolean[] labTypes = AttributeDictionary.LAB_TYPES.matchIgnoreCase(value);
+        return filter(item -> {
+            if (item instanceof Equipment) {
+                return isMatch(brands, ((Equipment) item).getBrandCode());
+            } else if (item instanceof Furniture) {
+                return isMatch(materials, ((Furniture) item).getMaterialCode());
+            } else if (item instanceof LabEquipment) {
+                return isMatch(labTypes, ((LabEquipment) item).getLabTypeCode());
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Counts equipment per brand.
+     *
+     * @param availableOnly whether to count only items available for assignment
+     * @return counts indexed by {@link AttributeDictionary#BRANDS} code
+     */
+    public int[] countByBrand(boolean availableOnly) {
+        int[] counts = new int[AttributeDictionary.BRANDS.size()];
+        for (int i = 0; i < items.size(); i++) {
+            InventoryItem item = items.get(i);
+            if (item instanceof Equipment && (!availableOnly || item.isAvailable())) {
+                counts[((Equipment) item).getBrandCode()]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts furniture per material.
+     *
+     * @param availableOnly whether to count only items available for assignment
+     * @return counts indexed by {@link AttributeDictionary#MATERIALS} code
+     */
+    public int[] countByMaterial(boolean availableOnly) {
+        int[] counts = new int[AttributeDictionary.MATERIALS.size()];
+        for (int i = 0; i < items.size(); i++) {
+            InventoryItem item = items.get(i);
+            if (item instanceof Furniture && (!availableOnly || item.isAvailable())) {
+                counts[((Furniture) item).getMaterialCode()]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts lab equipment per lab type.
+     *
+     * @param availableOnly whether to count only items available for assignment
+     * @return counts indexed by {@link AttributeDictionary#LAB_TYPES} code
+     */
+    public int[] countByLabType(boolean availableOnly) {
+        int[] counts = new int[AttributeDictionary.LAB_TYPES.size()];
+        for (int i = 0; i < items.size(); i++) {
+            InventoryItem item = items.get(i);
+            if (item instanceof LabEquipment && (!availableOnly || item.isAvailable())) {
+                counts[((LabEquipment) item).getLabTypeCode()]++;
+            }
+        }
+        return counts;
+    }
+
+    private InventoryItem[] filter(Predicate<InventoryItem> condition) {
+        // first determine how many match to size the array properly
+        int count = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (condition.test(items.get(i))) {
+                count++;
+            }
+        }
+        InventoryItem[] result = new InventoryItem[count];
+        int idx = 0;
+        for (int i = 0; i < items.size() && idx < count; i++) {
+            if (condition.test(items.get(i))) {
+                result[idx++] = items.get(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks a code against flags from {@link AttributeDictionary#matchIgnoreCase};
+     * codes newer than the flags never match.
+     */
+    private static boolean isMatch(boolean[] matches, int code) {
+        return code < matches.length && matches[code];
+    }
+
+    /**
+     * Returns the next version with no items and no staff, for when the store
+     * is reset.
+     */
+    InventorySnapshot withAllRemoved() {
+        return new InventorySnapshot(version + 1, PersistentArray.empty(), PersistentArray.empty());
+    }
+
+    /**
+     * Returns the next version with a copy of the given live item appended.
+     */
+    InventorySnapshot withAddedItem(InventoryItem item) {
+        return new InventorySnapshot(version + 1, items.append(item.copy()), staff);
+    }
+
+    /**
+     * Returns the next version with the item at the given position removed.
+     */
+    InventorySnapshot withRemovedItem(int index) {
+        return new InventorySnapshot(version + 1, items.remove(index), staff);
+    }
+
+    /**
+     * Returns the next version with a copy of the given live staff member
+     * appended.
+     */
+    InventorySnapshot withAddedStaff(StaffMember member) {
+        return new InventorySnapshot(version + 1, items, staff.append(member.copy()));
+    }
+
+    /**
+     * Returns the next version with a fresh copy of a changed item and,
+     * optionally, of the staff member holding it, for example after an
+     * assignment, a return or a move.
+     *
+     * @param itemIndex  position of the item in the inventory
+     * @param item       the live item
+     * @param staffIndex position of the staff member in the staff list, or -1 to leave staff unchanged
+     * @param member     the live staff member, or null
+     */
+    InventorySnapshot withChangedItem(int itemIndex, InventoryItem item, int staffIndex, StaffMember member) {
+        return new InventorySnapshot(version + 1, items.set(itemIndex, item.copy()),
+                staffIndex >= 0 ? staff.set(staffIndex, member.copy()) : staff);
+    }
+}
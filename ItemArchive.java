@@ -0,0 +1,255 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cold storage tier for retired inventory items. Retired items are removed
+ * from the live inventory and collected in a small in-memory buffer; once the
+ * buffer holds {@link #SEGMENT_CAPACITY} items it is written out as a new
+ * immutable, compressed {@link ArchiveSegment}. Segments already on disk are
+ * discovered lazily on the first archive query, and only their sparse
+ * indexes are kept in memory.
+ *
+ * Every buffered item is also appended to a log on disk before
+ * {@link #retire} returns, so a retirement survives the process being killed
+ * before the buffer is written. The log is named after the segment its items
+ * will become ({@code pending-000007.log} for {@code segment-000007.seg});
+ * it is replayed when the archive is loaded and deleted once that segment
+ * exists.
+ */
+public class ItemArchive {
+    // Number of retired items buffered before a new segment is written
+    static final int SEGMENT_CAPACITY = 256;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String LOG_PREFIX = "pending-";
+    private static final String LOG_SUFFIX = ".log";
+
+    private final Path directory;
+    private final List<ArchiveSegment> segments = new ArrayList<>();
+    private final List<ArchivedItem> pending = new ArrayList<>();
+    private int nextSegmentNumber = 1;
+    private boolean loaded;
+
+    /**
+     * Creates an archive stored in the given directory. No files are read
+     * until the archive is first used.
+     *
+     * @param directory directory holding the segment files
+     */
+    public ItemArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Moves a copy of an item into the archive. The copy is logged to disk
+     * before this method returns and written to a segment with the next full
+     * buffer. The item itself is not changed; removing it from the live
+     * inventory is up to the caller, once this method has succeeded.
+     *
+     * @param item      the item being retired
+     * @param retiredOn the retirement date
+     * @throws IOException if the retirement cannot be logged; the archive is then unchanged
+     */
+    public synchronized void retire(InventoryItem item, LocalDate retiredOn) throws IOException {
+        ensureLoaded();
+        InventoryItem copy = item.copy();
+        copy.setAvailable(false); // retired items can never be assigned
+        // segments and the log do not record where the item was kept; buffered records must print the same
+        copy.setLocation(null);
+        ArchivedItem record = new ArchivedItem(copy, retiredOn);
+        appendToLog(record);
+        pending.add(record);
+        if (pending.size() >= SEGMENT_CAPACITY) {
+            try {
+                flush();
+            } catch (IOException e) {
+                // the items are safe in the log; the next retirement or flush tries again
+            }
+        }
+    }
+
+    /**
+     * Writes all buffered retired items to a new segment. Does nothing if the
+     * buffer is empty.
+     *
+     * @throws IOException if the segment cannot be written; the items stay buffered and logged
+     */
+    public synchronized void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        ensureLoaded();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, nextSegmentNumber, SEGMENT_SUFFIX));
+        segments.add(ArchiveSegment.write(file, new ArrayList<>(pending)));
+        // the segment now holds everything the log did
+        Files.deleteIfExists(logFile(nextSegmentNumber));
+        nextSegmentNumber++;
+        pending.clear();
+    }
+
+    /**
+     * Finds an archived item by ID (case insensitive). Newer retirements are
+     * checked first.
+     *
+     * @param id the item ID
+     * @return the archived item, or null if no retired item has this ID
+     * @throws IOException if a segment cannot be read
+     */
+    public synchronized ArchivedItem findById(String id) throws IOException {
+        ensureLoaded();
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            if (pending.get(i).getItem().getId().equalsIgnoreCase(id)) {
+                return pending.get(i);
+            }
+        }
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            ArchivedItem record = segments.get(i).findById(id);
+            if (record != null) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns all archived items purchased within the given range (inclusive).
+     *
+     * @param from earliest purchase date
+     * @param to   latest purchase date
+     * @return matching archived items
+     * @throws IOException if a segment cannot be read
+     */
+    public synchronized List<ArchivedItem> findByPurchaseDate(LocalDate from, LocalDate to) throws IOException {
+        ensureLoaded();
+        List<ArchivedItem> result = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            segment.findByPurchaseDate(from, to, result);
+        }
+        for (ArchivedItem record : pending) {
+            LocalDate purchased = record.getItem().getPurchaseDate();
+            if (!purchased.isBefore(from) && !purchased.isAfter(to)) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total number of archived items, including buffered ones.
+     *
+     * @throws IOException if the existing segments cannot be read
+     */
+    public synchronized int getArchivedCount() throws IOException {
+        ensureLoaded();
+        int count = pending.size();
+        for (ArchiveSegment segment : segments) {
+            count += segment.getRecordCount();
+        }
+        return count;
+    }
+
+    /**
+     * Opens the segments already present in the archive directory, in the
+     * order they were written.
+     */
+    private void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        if (Files.isDirectory(directory)) {
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                    SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (Path file : stream) {
+                    files.add(file);
+                }
+            }
+            files.sort(null);
+            for (Path file : files) {
+                segments.add(ArchiveSegment.open(file));
+                String name = file.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    nextSegmentNumber = Math.max(nextSegmentNumber, Integer.parseInt(number) + 1);
+                } catch (NumberFormatException e) {
+                    // not one of our numbered segments; keep it readable anyway
+                }
+            }
+            replayLogs();
+        }
+        loaded = true;
+    }
+
+    /**
+     * Buffers the items logged for the next segment again, and deletes logs
+     * whose segment was written before the log could be removed.
+     */
+    private void replayLogs() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, LOG_PREFIX + "*" + LOG_SUFFIX)) {
+            for (Path file : stream) {
+                if (!file.equals(logFile(nextSegmentNumber))) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Path log = logFile(nextSegmentNumber);
+        if (!Files.exists(log)) {
+            return;
+        }
+        byte[] bytes = Files.readAllBytes(log);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int complete = 0;
+        try {
+            while (complete < bytes.length) {
+                LocalDate retiredOn = LocalDate.ofEpochDay(in.readLong());
+                InventoryItem item = ItemCodec.readItem(in);
+                item.setAvailable(false); // retired items can never be assigned
+                pending.add(new ArchivedItem(item, retiredOn));
+                complete = bytes.length - in.available();
+            }
+        } catch (EOFException e) {
+            // the process stopped while appending the last record; drop the partial record
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+    }
+
+    private void appendToLog(ArchivedItem record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(record.getRetiredOn().toEpochDay());
+        ItemCodec.writeItem(out, record.getItem());
+        Files.createDirectories(directory);
+        try (FileChannel log = FileChannel.open(logFile(nextSegmentNumber), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long size = log.size();
+            try {
+                log.write(ByteBuffer.wrap(bytes.toByteArray()));
+                log.force(true);
+            } catch (IOException e) {
+                log.truncate(size); // leave no partial record for the next append to follow
+                throw e;
+            }
+        }
+    }
+
+    private Path logFile(int segmentNumber) {
+        return directory.resolve(String.format("%s%06d%s", LOG_PREFIX, segmentNumber, LOG_SUFFIX));
+    }
+}
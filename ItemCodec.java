@@ -0,0 +1,79 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Converts inventory items to and from a compact binary form. The encoding
+ * stores a one-byte type tag (using the same numbering as the "add item" menu)
+ * followed by the common item fields and the subclass-specific attribute.
+ * Dates are written as epoch days, with a flag for a missing warranty date.
+ */
+final class ItemCodec {
+    static final byte TYPE_EQUIPMENT = 1;
+    static final byte TYPE_FURNITURE = 2;
+    static final byte TYPE_LAB_EQUIPMENT = 3;
+
+    private ItemCodec() {
+    }
+
+    /**
+     * Writes the given item to the output.
+     *
+     * @param out  destination of the encoded item
+     * @param item the item to encode
+     * @throws IOException if the output cannot be written
+     */
+    static void writeItem(DataOutput out, InventoryItem item) throws IOException {
+        String attribute;
+        if (item instanceof Equipment) {
+            out.writeByte(TYPE_EQUIPMENT);
+            attribute = ((Equipment) item).getBrand();
+        } else if (item instanceof Furniture) {
+            out.writeByte(TYPE_FURNITURE);
+            attribute = ((Furniture) item).getMaterial();
+        } else if (item instanceof LabEquipment) {
+            out.writeByte(TYPE_LAB_EQUIPMENT);
+            attribute = ((LabEquipment) item).getLabType();
+        } else {
+            throw new IOException("Unsupported item type: " + item.getClass().getName());
+        }
+        out.writeUTF(item.getId());
+        out.writeUTF(item.getName());
+        out.writeUTF(attribute);
+        out.writeLong(item.getPurchaseDate().toEpochDay());
+        out.writeDouble(item.getPrice());
+        LocalDate warrantyEnd = item.getWarrantyEndDate();
+        out.writeBoolean(warrantyEnd != null);
+        if (warrantyEnd != null) {
+            out.writeLong(warrantyEnd.toEpochDay());
+        }
+    }
+
+    /**
+     * Reads an item previously written by {@link #writeItem}.
+     *
+     * @param in source of the encoded item
+     * @return the decoded item
+     * @throws IOException if the input is truncated or holds an unknown type
+     */
+    static InventoryItem readItem(DataInput in) throws IOException {
+        byte type = in.readByte();
+        String id = in.readUTF();
+        String name = in.readUTF();
+        String attribute = in.readUTF();
+        LocalDate purchaseDate = LocalDate.ofEpochDay(in.readLong());
+        double price = in.readDouble();
+        LocalDate warrantyEnd = in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+        switch (type) {
+            case TYPE_EQUIPMENT:
+                return new Equipment(id, name, attribute, purchaseDate, price, warrantyEnd);
+            case TYPE_FURNITURE:
+                return new Furniture(id, name, attribute, purchaseDate, price, warrantyEnd);
+            case TYPE_LAB_EQUIPMENT:
+                return new LabEquipment(id, name, attribute, purchaseDate, price, warrantyEnd);
+            default:
+                throw new IOException("Unknown item type tag: " + type);
+        }
+    }
+}
@@ -7,7 +7,7 @@ import java.time.LocalDate;
  * scientific instruments.
  */
 public class LabEquipment extends InventoryItem {
-    private String labType;
+    private int labTypeCode;
 
     /**
      * Constructs a new lab equipment item.
@@ -22,14 +22,26 @@ public class LabEquipment extends InventoryItem {
     public LabEquipment(String id, String name, String labType, LocalDate purchaseDate, double price,
             LocalDate warrantyEnd) {
         super(id, name, purchaseDate, price, warrantyEnd);
-        this.labType = labType;
+        this.labTypeCode = AttributeDictionary.LAB_TYPES.encode(labType);
+    }
+
+    private LabEquipment(LabEquipment other) {
+        super(other);
+        this.labTypeCode = other.labTypeCode;
     }
 
     /**
      * Returns the lab type for this equipment.
      */
     public String getLabType() {
-        return labType;
+        return AttributeDictionary.LAB_TYPES.decode(labTypeCode);
+    }
+
+    /**
+     * Returns the dictionary code of the lab type.
+     */
+    public int getLabTypeCode() {
+        return labTypeCode;
     }
 
     /**
@@ -44,9 +56,14 @@ public class LabEquipment extends InventoryItem {
         return getPrice() * 0.10; // 10% of the purchase price
     }
 
+    @Override
+    public LabEquipment copy() {
+        return new LabEquipment(this);
+    }
+
     @Override
     public String toString() {
-        return String.format("[LabEquipment] %s, Lab Type: %s, Maintenance Fee: %.2f", super.toString(), labType,
+        return String.format("[LabEquipment] %s, Lab Type: %s, Maintenance Fee: %.2f", super.toString(), getLabType(),
                 getMaintenanceFee());
     }
 }
\ No newline at end of file
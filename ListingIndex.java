@@ -0,0 +1,253 @@
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted indexes for paging through the inventory and the staff list. Each
+ * supported ordering keeps its entries in a skip list, and a page is read by
+ * seeking to the position just after the previous page's last entry (keyset
+ * pagination). Fetching a page therefore costs O(log n + page size) however
+ * deep into the listing the cursor is, and pages stay stable while entries
+ * are added or removed elsewhere in the listing.
+ *
+ * The listings hold the same read-only copies of items and staff members
+ * that the current {@link InventorySnapshot} holds, never the live objects,
+ * and an entry's copy is replaced whenever the item or staff member changes.
+ * Changes are made under the store lock; pages can be read concurrently
+ * without locking.
+ */
+final class ListingIndex {
+
+    /**
+     * Orderings available for item listings.
+     */
+    enum ItemOrder {
+        ID, NAME, PURCHASE_DATE, WARRANTY_END
+    }
+
+    /**
+     * Orderings available for staff listings.
+     */
+    enum StaffOrder {
+        ID, NAME
+    }
+
+    // Largest page that can be requested
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final Map<ItemOrder, ConcurrentSkipListMap<Key, InventoryItem>> items = new EnumMap<>(ItemOrder.class);
+    private final Map<StaffOrder, ConcurrentSkipListMap<Key, StaffMember>> staff = new EnumMap<>(StaffOrder.class);
+
+    // Insertion number of each indexed live item and staff member, which keeps keys unique when IDs repeat
+    private final Map<InventoryItem, Long> itemSequences = new IdentityHashMap<>();
+    private final Map<StaffMember, Long> staffSequences = new IdentityHashMap<>();
+    private long nextSequence;
+
+    ListingIndex() {
+        for (ItemOrder order : ItemOrder.values()) {
+            items.put(order, new ConcurrentSkipListMap<>());
+        }
+        for (StaffOrder order : StaffOrder.values()) {
+            staff.put(order, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Adds an item to every item ordering.
+     *
+     * @param item the live item
+     * @param copy read-only copy of the item to list
+     */
+    void addItem(InventoryItem item, InventoryItem copy) {
+        long sequence = nextSequence++;
+        itemSequences.put(item, sequence);
+        for (ItemOrder order : ItemOrder.values()) {
+            items.get(order).put(keyOf(item, order, sequence), copy);
+        }
+    }
+
+    /**
+     * Lists a fresh copy of an item after it was assigned, returned or moved.
+     *
+     * @param item the live item
+     * @param copy read-only copy of the item in its new state
+     */
+    void itemChanged(InventoryItem item, InventoryItem copy) {
+        Long sequence = itemSequences.get(item);
+        if (sequence == null) {
+            return;
+        }
+        // none of the sort keys can change, so the entries keep their places
+        for (ItemOrder order : ItemOrder.values()) {
+            items.get(order).put(keyOf(item, order, sequence), copy);
+        }
+    }
+
+    /**
+     * Removes an item from every item ordering.
+     */
+    void removeItem(InventoryItem item) {
+        Long sequence = itemSequences.remove(item);
+        if (sequence == null) {
+            return;
+        }
+        for (ItemOrder order : ItemOrder.values()) {
+            items.get(order).remove(keyOf(item, order, sequence));
+        }
+    }
+
+    /**
+     * Adds a staff member to every staff ordering.
+     *
+     * @param member the live staff member
+     * @param copy   read-only copy of the staff member to list
+     */
+    void addStaff(StaffMember member, StaffMember copy) {
+        long sequence = nextSequence++;
+        staffSequences.put(member, sequence);
+        putStaff(member, sequence, copy);
+    }
+
+    /**
+     * Lists a fresh copy of a staff member whose assigned items changed.
+     *
+     * @param member the live staff member
+     * @param copy   read-only copy of the staff member in their new state
+     */
+    void staffChanged(StaffMember member, StaffMember copy) {
+        Long sequence = staffSequences.get(member);
+        if (sequence != null) {
+            putStaff(member, sequence, copy);
+        }
+    }
+
+    private void putStaff(StaffMember member, long sequence, StaffMember copy) {
+        staff.get(StaffOrder.ID).put(new Key(member.getStaffId(), 0, member.getStaffId(), sequence), copy);
+        staff.get(StaffOrder.NAME).put(new Key(member.getName(), 0, member.getStaffId(), sequence), copy);
+    }
+
+    /**
+     * Returns one page of items.
+     *
+     * @param order    ordering of the listing
+     * @param cursor   cursor from the previous page, or null for the first page
+     * @param pageSize maximum number of items on the page, at most {@link #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another ordering, or the page
+     *                                  size is out of range
+     */
+    Page<InventoryItem> itemPage(ItemOrder order, String cursor, int pageSize) {
+        return page(items.get(order), "I" + order, cursor, pageSize);
+    }
+
+    /**
+     * Returns one page of staff members.
+     *
+     * @param order    ordering of the listing
+     * @param cursor   cursor from the previous page, or null for the first page
+     * @param pageSize maximum number of staff members on the page, at most {@link #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another ordering, or the page
+     *                                  size is out of range
+     */
+    Page<StaffMember> staffPage(StaffOrder order, String cursor, int pageSize) {
+        return page(staff.get(order), "S" + order, cursor, pageSize);
+    }
+
+    private static <T> Page<T> page(ConcurrentSkipListMap<Key, T> index, String listing, String cursor,
+            int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        NavigableMap<Key, T> rest = cursor == null ? index : index.tailMap(decodeCursor(listing, cursor), false);
+        // sized as entries arrive; the last page may be much shorter than the page size
+        List<T> entries = new ArrayList<>();
+        Key last = null;
+        for (Map.Entry<Key, T> entry : rest.entrySet()) {
+            if (entries.size() == pageSize) {
+                // at least one more entry follows this page
+                return new Page<>(entries, encodeCursor(listing, last));
+            }
+            entries.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page<>(entries, null);
+    }
+
+    private static Key keyOf(InventoryItem item, ItemOrder order, long sequence) {
+        switch (order) {
+            case NAME:
+                return new Key(item.getName(), 0, item.getId(), sequence);
+            case PURCHASE_DATE:
+                return new Key("", item.getPurchaseDate().toEpochDay(), item.getId(), sequence);
+            case WARRANTY_END: {
+                LocalDate warrantyEnd = item.getWarrantyEndDate();
+                // items without a warranty date are listed last
+                long day = warrantyEnd != null ? warrantyEnd.toEpochDay() : Long.MAX_VALUE;
+                return new Key("", day, item.getId(), sequence);
+            }
+            default:
+                return new Key(item.getId(), 0, item.getId(), sequence);
+        }
+    }
+
+    private static String encodeCursor(String listing, Key key) {
+        String raw = listing + SEPARATOR + key.text + SEPARATOR + key.number + SEPARATOR + key.id + SEPARATOR
+                + key.sequence;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Key decodeCursor(String listing, String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+            if (parts.length != 5 || !parts[0].equals(listing)) {
+                throw new IllegalArgumentException("The cursor does not belong to this listing.");
+            }
+            return new Key(parts[1], Long.parseLong(parts[2]), parts[3], Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException e) {
+            // also covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sort key of one entry: text (case insensitive), then a number, then the
+     * ID (case insensitive), then the insertion number.
+     */
+    private static final class Key implements Comparable<Key> {
+        final String text;
+        final long number;
+        final String id;
+        final long sequence;
+
+        Key(String text, long number, String id, long sequence) {
+            this.text = text;
+            this.number = number;
+            this.id = id;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int result = String.CASE_INSENSITIVE_ORDER.compare(text, other.text);
+            if (result == 0) {
+                result = Long.compare(number, other.number);
+            }
+            if (result == 0) {
+                result = String.CASE_INSENSITIVE_ORDER.compare(id, other.id);
+            }
+            if (result == 0) {
+                result = Long.compare(sequence, other.sequence);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A place on campus where inventory items are kept. Locations form a
+ * hierarchy of campus, building, floor and room, and items are always placed
+ * in a room. Every location also keeps the items in its rooms (see
+ * {@link LocationIndex}): rooms hold the items themselves and every location
+ * counts the items below it by type and availability, so searches can skip
+ * parts of the campus that hold nothing of interest.
+ */
+public class Location {
+
+    /**
+     * Levels of the location hierarchy, from the top down.
+     */
+    public enum Level {
+        CAMPUS, BUILDING, FLOOR, ROOM
+    }
+
+    private final String name;
+    private final Level level;
+    private final Location parent;
+    private final String path;
+    private final Map<String, Location> children = new LinkedHashMap<>();
+
+    // Index data, maintained by LocationIndex under the store lock
+    final int[] counts = new int[LocationIndex.BUCKETS];
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    final List<InventoryItem>[] items = new List[LocationIndex.BUCKETS];
+    // Children with a non-zero count per bucket, and this location's position in its parent's lists
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    final List<Location>[] occupied = new List[LocationIndex.BUCKETS];
+    final int[] occupiedPosition = new int[LocationIndex.BUCKETS];
+
+    /**
+     * Constructs a location below the given parent.
+     *
+     * @param name   name of the location, unique among its siblings
+     * @param level  level of the location in the hierarchy
+     * @param parent enclosing location, or null for a campus
+     */
+    Location(String name, Level level, Location parent) {
+        this.name = name;
+        this.level = level;
+        this.parent = parent;
+        this.path = parent == null || parent.path.isEmpty() ? name : parent.path + "/" + name;
+    }
+
+    /**
+     * Returns the name of the location.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the level of the location in the hierarchy.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the enclosing location, or null for a campus.
+     */
+    public Location getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns the full path, for example {@code Main/Science/2/204}.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the total number of items in this location and below.
+     */
+    public int getItemCount() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the locations directly inside this one.
+     */
+    Collection<Location> getChildren() {
+        return children.values();
+    }
+
+    /**
+     * Returns the child with the given name (case insensitive).
+     *
+     * @return the child, or null if there is none
+     */
+    Location getChild(String childName) {
+        return children.get(childName.toLowerCase());
+    }
+
+    /**
+     * Returns the child with the given name, creating it if needed.
+     */
+    Location getOrCreateChild(String childName, Level childLevel) {
+        return children.computeIfAbsent(childName.toLowerCase(), key -> new Location(childName, childLevel, this));
+    }
+
+    /**
+     * Returns the list of items in the given bucket of this room, creating it
+     * if needed.
+     */
+    List<InventoryItem> bucket(int index) {
+        if (items[index] == null) {
+            items[index] = new ArrayList<>();
+        }
+        return items[index];
+    }
+
+    /**
+     * Returns the list of children holding items of the given bucket,
+     * creating it if needed.
+     */
+    List<Location> occupiedChildren(int index) {
+        if (occupied[index] == null) {
+            occupied[index] = new ArrayList<>();
+        }
+        return occupied[index];
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,244 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical index of where inventory items are kept. Each room holds its
+ * items in buckets by item type and availability, every location counts the
+ * items below it per bucket, and every location lists, per bucket, the
+ * children whose count is non-zero. Searches walk down only those lists, so
+ * listing everything below a location, or the available items of one type,
+ * takes time proportional to the number of items found however many empty
+ * rooms and floors surround them (the hierarchy is at most four levels deep).
+ * Placing, moving and removing an item, or changing its availability, swaps
+ * it between two buckets and adjusts the counts on the path to the top; a
+ * location joins or leaves its parent's list when its count becomes non-zero
+ * or zero.
+ *
+ * Searches return the read-only copies of the items published with the
+ * current {@link InventorySnapshot} (see {@link #published}), never the live
+ * items, so callers can use the results after releasing the store lock.
+ *
+ * The index is not thread safe; callers hold the store lock.
+ */
+final class LocationIndex {
+    // One bucket per item type (equipment, furniture, lab equipment) and availability
+    static final int BUCKETS = 6;
+
+    private static final Location.Level[] LEVELS = Location.Level.values();
+
+    // Top of the hierarchy; its children are the campuses
+    private final Location root = new Location("", null, null);
+
+    // Where each placed item is: its room, bucket and position within the bucket
+    private final Map<InventoryItem, Slot> slots = new IdentityHashMap<>();
+
+    private static final class Slot {
+        Location room;
+        int bucket;
+        int position;
+        // Read-only copy of the item in its current state, returned by searches
+        InventoryItem copy;
+    }
+
+    /**
+     * Finds a location by its path (campus, building, floor and room names
+     * separated by '/', case insensitive).
+     *
+     * @param path   path of the location; a shorter path names a campus, building or floor
+     * @param create whether missing locations along the path should be created
+     * @return the location, or null if it does not exist and was not created
+     * @throws IllegalArgumentException if the path is empty or has more than four parts
+     */
+    Location find(String path, boolean create) {
+        String[] parts = path.split("/");
+        if (path.trim().isEmpty() || parts.length > LEVELS.length) {
+            throw new IllegalArgumentException("A location is written as campus/building/floor/room.");
+        }
+        Location node = root;
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            if (part.isEmpty()) {
+                throw new IllegalArgumentException("Location names cannot be empty.");
+            }
+            Location child = node.getChild(part);
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = node.getOrCreateChild(part, LEVELS[i]);
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Finds a room by its full path.
+     *
+     * @param path   campus/building/floor/room
+     * @param create whether missing locations along the path should be created
+     * @return the room, or null if it does not exist and was not created
+     * @throws IllegalArgumentException if the path does not name a room
+     */
+    Location findRoom(String path, boolean create) {
+        if (path.split("/").length != LEVELS.length) {
+            throw new IllegalArgumentException("A room is written as campus/building/floor/room.");
+        }
+        return find(path, create);
+    }
+
+    /**
+     * Returns the campuses, in the order they were created.
+     */
+    List<Location> getCampuses() {
+        return new ArrayList<>(root.getChildren());
+    }
+
+    /**
+     * Places an item in a room, or moves it there if it is already placed.
+     *
+     * @param item the item
+     * @param room the destination room
+     * @throws IllegalArgumentException if the location is not a room
+     */
+    void place(InventoryItem item, Location room) {
+        if (room.getLevel() != Location.Level.ROOM) {
+            throw new IllegalArgumentException("Items can only be placed in a room.");
+        }
+        Slot slot = slots.get(item);
+        if (slot != null) {
+            detach(item, slot);
+        } else {
+            slot = new Slot();
+            slots.put(item, slot);
+        }
+        attach(item, slot, room, bucketOf(item));
+        item.setLocation(room);
+    }
+
+    /**
+     * Removes an item from the index, for example when it is retired.
+     */
+    void remove(InventoryItem item) {
+        Slot slot = slots.remove(item);
+        if (slot != null) {
+            detach(item, slot);
+            item.setLocation(null);
+        }
+    }
+
+    /**
+     * Records the read-only copy of a placed item published after its latest
+     * change. Called whenever a new snapshot copy of the item is published.
+     */
+    void published(InventoryItem item, InventoryItem copy) {
+        Slot slot = slots.get(item);
+        if (slot != null) {
+            slot.copy = copy;
+        }
+    }
+
+    /**
+     * Moves an item to the bucket matching its current availability. Called
+     * after the item is assigned or returned.
+     */
+    void availabilityChanged(InventoryItem item) {
+        Slot slot = slots.get(item);
+        if (slot != null && slot.bucket != bucketOf(item)) {
+            Location room = slot.room;
+            detach(item, slot);
+            attach(item, slot, room, bucketOf(item));
+        }
+    }
+
+    /**
+     * Returns the copies of every item kept in the given location or below
+     * it.
+     */
+    List<InventoryItem> itemsUnder(Location node) {
+        List<InventoryItem> result = new ArrayList<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            collect(node, bucket, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the copies of the available items of the given type kept in
+     * the given location or below it.
+     *
+     * @param node     the location to search
+     * @param typeCode item type, as in {@link ItemCodec} (1 equipment, 2 furniture, 3 lab equipment)
+     */
+    List<InventoryItem> availableUnder(Location node, int typeCode) {
+        List<InventoryItem> result = new ArrayList<>();
+        collect(node, (typeCode - 1) * 2 + 1, result);
+        return result;
+    }
+
+    private void collect(Location node, int bucket, List<InventoryItem> result) {
+        if (node.counts[bucket] == 0) {
+            return;
+        }
+        if (node.getLevel() == Location.Level.ROOM) {
+            for (InventoryItem item : node.items[bucket]) {
+                result.add(slots.get(item).copy);
+            }
+            return;
+        }
+        for (Location child : node.occupied[bucket]) {
+            collect(child, bucket, result);
+        }
+    }
+
+    private void attach(InventoryItem item, Slot slot, Location room, int bucket) {
+        List<InventoryItem> items = room.bucket(bucket);
+        slot.room = room;
+        slot.bucket = bucket;
+        slot.position = items.size();
+        items.add(item);
+        for (Location node = room; node != null; node = node.getParent()) {
+            if (node.counts[bucket]++ == 0 && node.getParent() != null) {
+                List<Location> siblings = node.getParent().occupiedChildren(bucket);
+                node.occupiedPosition[bucket] = siblings.size();
+                siblings.add(node);
+            }
+        }
+    }
+
+    private void detach(InventoryItem item, Slot slot) {
+        // swap the last item of the bucket into this item's position
+        List<InventoryItem> items = slot.room.items[slot.bucket];
+        InventoryItem last = items.remove(items.size() - 1);
+        if (last != item) {
+            items.set(slot.position, last);
+            slots.get(last).position = slot.position;
+        }
+        for (Location node = slot.room; node != null; node = node.getParent()) {
+            if (--node.counts[slot.bucket] == 0 && node.getParent() != null) {
+                // swap the last occupied sibling into this location's position
+                List<Location> siblings = node.getParent().occupied[slot.bucket];
+                Location lastSibling = siblings.remove(siblings.size() - 1);
+                if (lastSibling != node) {
+                    int position = node.occupiedPosition[slot.bucket];
+                    siblings.set(position, lastSibling);
+                    lastSibling.occupiedPosition[slot.bucket] = position;
+                }
+            }
+        }
+    }
+
+    private static int bucketOf(InventoryItem item) {
+        int type;
+        if (item instanceof Equipment) {
+            type = 0;
+        } else if (item instanceof Furniture) {
+            type = 1;
+        } else {
+            type = 2;
+        }
+        return type * 2 + (item.isAvailable() ? 1 : 0);
+    }
+}
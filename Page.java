@@ -0,0 +1,45 @@
+import java.util.List;
+
+/**
+ * One page of a paginated listing. A page holds up to the requested number of
+ * entries and, if more entries follow, an opaque cursor that fetches the next
+ * page.
+ *
+ * @param <T> type of the listed entries
+ */
+public class Page<T> {
+    private final List<T> entries;
+    private final String nextCursor;
+
+    /**
+     * Constructs a page.
+     *
+     * @param entries    the entries on this page
+     * @param nextCursor cursor for the next page, or null if this is the last page
+     */
+    public Page(List<T> entries, String nextCursor) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns the entries on this page.
+     */
+    public List<T> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the cursor for the next page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Returns whether another page follows this one.
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+/**
+ * An immutable array that supports cheap modified copies. Elements are stored
+ * in fixed-size chunks, so replacing or appending an element copies only the
+ * chunk table and the one chunk that changes, while all other chunks are
+ * shared with the previous version. This keeps the cost of publishing a new
+ * {@link InventorySnapshot} small even for a large inventory.
+ *
+ * @param <T> element type
+ */
+final class PersistentArray<T> {
+    private static final int CHUNK_BITS = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final PersistentArray<Object> EMPTY = new PersistentArray<>(new Object[0][], 0);
+
+    private final Object[][] chunks;
+    private final int size;
+
+    private PersistentArray(Object[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty array.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> PersistentArray<T> empty() {
+        return (PersistentArray<T>) EMPTY;
+    }
+
+    /**
+     * Returns the number of elements.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the element at the given position.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return (T) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Returns a copy of this array with the element at the given position
+     * replaced.
+     */
+    PersistentArray<T> set(int index, T value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        Object[][] newChunks = chunks.clone();
+        int chunk = index >>> CHUNK_BITS;
+        newChunks[chunk] = chunks[chunk].clone();
+        newChunks[chunk][index & CHUNK_MASK] = value;
+        return new PersistentArray<>(newChunks, size);
+    }
+
+    /**
+     * Returns a copy of this array with the given element added at the end.
+     */
+    PersistentArray<T> append(T value) {
+        int chunk = size >>> CHUNK_BITS;
+        Object[][] newChunks = chunk < chunks.length ? chunks.clone() : Arrays.copyOf(chunks, chunk + 1);
+        newChunks[chunk] = chunk < chunks.length ? chunks[chunk].clone() : new Object[CHUNK_SIZE];
+        newChunks[chunk][size & CHUNK_MASK] = value;
+        return new PersistentArray<>(newChunks, size + 1);
+    }
+
+    /**
+     * Returns a copy of this array with the element at the given position
+     * removed and the following elements shifted down. Unlike {@link #set}
+     * and {@link #append} this copies every chunk after the removed element.
+     */
+    PersistentArray<T> remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int newSize = size - 1;
+        Object[][] newChunks = Arrays.copyOf(chunks, (newSize + CHUNK_MASK) >>> CHUNK_BITS);
+        for (int c = index >>> CHUNK_BITS; c < newChunks.length; c++) {
+            newChunks[c] = new Object[CHUNK_SIZE];
+        }
+        for (int i = index & ~CHUNK_MASK; i < newSize; i++) {
+            Object value = i < index ? get(i) : get(i + 1);
+            newChunks[i >>> CHUNK_BITS][i & CHUNK_MASK] = value;
+        }
+        return new PersistentArray<>(newChunks, newSize);
+    }
+}
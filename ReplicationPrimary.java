@@ -0,0 +1,178 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ships inventory changes from this process to read replicas. Replicas
+ * connect to a local port; each new replica first receives a full copy of
+ * the current inventory and staff, and then every change in the order it was
+ * made. Each replica has its own queue and sender thread, so a slow replica
+ * never holds up assignments on the primary. A replica that falls more than
+ * {@link #REPLICA_QUEUE_CAPACITY} changes behind is disconnected; it then
+ * reconnects and starts again from a fresh copy.
+ *
+ * {@link #publish} is called by the inventory while it holds the store lock,
+ * which fixes the order of the records.
+ */
+final class ReplicationPrimary {
+    // Changes a replica may fall behind before it is disconnected
+    static final int REPLICA_QUEUE_CAPACITY = 100_000;
+
+    // How often an idle connection reports the latest sequence number
+    static final long HEARTBEAT_MILLIS = 500;
+
+    private final ServerSocket server;
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private volatile long sequence;
+    private volatile boolean running = true;
+
+    /**
+     * Starts accepting replicas on the given port of the loopback interface.
+     *
+     * @param port TCP port to listen on
+     * @throws IOException if the port cannot be opened
+     */
+    ReplicationPrimary(int port) throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "replication-primary-" + port);
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Returns the sequence number for the next change. Called under the store
+     * lock.
+     */
+    long nextSequence() {
+        return ++sequence;
+    }
+
+    /**
+     * Returns the sequence number of the latest change.
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the number of connected replicas.
+     */
+    int getReplicaCount() {
+        return connections.size();
+    }
+
+    /**
+     * Queues a change for every connected replica. Called under the store
+     * lock, right after the change was made.
+     */
+    void publish(ChangeRecord record) {
+        for (Connection connection : connections) {
+            if (!connection.queue.offer(record)) {
+                connection.close(); // fell too far behind; it will reconnect and resynchronise
+            }
+        }
+    }
+
+    /**
+     * Starts shipping to a replica, beginning with the given full copy of the
+     * store. Called under the store lock so no change can slip in between the
+     * copy and the live changes that follow it.
+     */
+    void attach(Socket socket, List<ChangeRecord> fullCopy) {
+        Connection connection = new Connection(socket, fullCopy.size() + REPLICA_QUEUE_CAPACITY);
+        connection.queue.addAll(fullCopy);
+        connections.add(connection);
+        connection.start();
+    }
+
+    /**
+     * Disconnects all replicas and stops accepting new ones.
+     */
+    void stop() {
+        running = false;
+        try {
+            server.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                UniversityInventorySystem.attachReplica(this, socket);
+            } catch (IOException e) {
+                return; // server socket closed
+            }
+        }
+    }
+
+    /**
+     * One connected replica with its queue of changes still to send.
+     */
+    private final class Connection {
+        private final Socket socket;
+        private final BlockingQueue<ChangeRecord> queue;
+        private final Thread sender;
+
+        Connection(Socket socket, int capacity) {
+            this.socket = socket;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+            this.sender = new Thread(this::sendLoop, "replication-sender-" + socket.getPort());
+            this.sender.setDaemon(true);
+        }
+
+        void start() {
+            sender.start();
+        }
+
+        void close() {
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+            sender.interrupt();
+        }
+
+        private void sendLoop() {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                long lastHeartbeat = 0;
+                while (running) {
+                    ChangeRecord record = queue.poll(HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (record != null) {
+                        record.write(out);
+                    }
+                    long now = System.currentTimeMillis();
+                    if (now - lastHeartbeat >= HEARTBEAT_MILLIS) {
+                        ChangeRecord.heartbeat(sequence).write(out);
+                        lastHeartbeat = now;
+                        out.flush();
+                    } else if (queue.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // replica disconnected
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+    }
+}
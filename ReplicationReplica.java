@@ -0,0 +1,127 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * Keeps this process's inventory a read-only copy of a primary's (see
+ * {@link ReplicationPrimary}). The replica connects to the primary, receives
+ * a full copy of its inventory and staff and then applies every change in
+ * the order the primary made it, so searches and reports can be served here
+ * instead of on the node that handles assignments.
+ *
+ * If the connection drops, or a change does not match the local copy, the
+ * replica reconnects and starts again from a fresh copy. The status reports
+ * how far the replica is behind the primary.
+ */
+final class ReplicationReplica {
+    // Wait between attempts to reach the primary
+    static final long RETRY_MILLIS = 1_000;
+
+    private final String host;
+    private final int port;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile Socket socket;
+
+    private volatile boolean connected;
+    private volatile long appliedSequence;
+    private volatile long primarySequence;
+    private volatile long lastApplyDelayMillis;
+    private volatile long lastContactMillis;
+    private volatile int connections;
+    private volatile String lastError;
+
+    /**
+     * Starts following the primary listening on the given host and port.
+     */
+    ReplicationReplica(String host, int port) {
+        this.host = host;
+        this.port = port;
+        this.thread = new Thread(this::run, "replication-replica");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Returns how many changes the primary has made that are not applied
+     * here yet, as of the last message from the primary.
+     */
+    long getRecordsBehind() {
+        return Math.max(0, primarySequence - appliedSequence);
+    }
+
+    /**
+     * Stops following the primary.
+     */
+    void stop() {
+        running = false;
+        closeSocket();
+        thread.interrupt();
+    }
+
+    /**
+     * Returns a one-line description of the replication state.
+     */
+    String getStatus() {
+        String state = connected ? "Connected to" : "Disconnected from";
+        String contact = lastContactMillis == 0 ? "never"
+                : (System.currentTimeMillis() - lastContactMillis) + " ms ago";
+        String status = String.format("%s %s:%d, Applied: #%d, Primary: #%d, Records behind: %d, "
+                + "Last apply delay: %d ms, Last heard from primary: %s, Connections: %d", state, host, port,
+                appliedSequence, primarySequence, getRecordsBehind(), lastApplyDelayMillis, contact, connections);
+        return lastError == null ? status : status + ", Last error: " + lastError;
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket connection = new Socket(host, port)) {
+                socket = connection;
+                connected = true;
+                connections++;
+                follow(new DataInputStream(new BufferedInputStream(connection.getInputStream())));
+            } catch (EOFException e) {
+                lastError = "primary closed the connection";
+            } catch (IOException | IllegalStateException e) {
+                lastError = e.getMessage();
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void follow(DataInputStream in) throws IOException {
+        while (running) {
+            ChangeRecord change = ChangeRecord.read(in);
+            long now = System.currentTimeMillis();
+            lastContactMillis = now;
+            // a full copy starts the count afresh, as the primary may have restarted
+            primarySequence = change.type == ChangeRecord.Type.RESET ? change.sequence
+                    : Math.max(primarySequence, change.sequence);
+            if (change.type == ChangeRecord.Type.HEARTBEAT) {
+                continue;
+            }
+            UniversityInventorySystem.applyChange(change);
+            appliedSequence = change.sequence;
+            lastApplyDelayMillis = now - change.timestamp;
+        }
+    }
+
+    private void closeSocket() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * A single read from a check-out desk barcode scanner or a door RFID reader.
+ * A scan records which item was seen, the badge of the staff member carrying
+ * it and whether the item was leaving (checked out) or coming back (checked
+ * in). Staff badges carry the staff ID.
+ *
+ * Scans are exchanged as text lines of the form
+ * {@code itemId,badgeId,OUT|IN[,epochMillis]}; when the time is omitted the
+ * time the line was received is used.
+ */
+public class ScanEvent {
+
+    /**
+     * Whether the item was checked out to the staff member or returned.
+     */
+    public enum Direction {
+        OUT, IN
+    }
+
+    private final String itemId;
+    private final String badgeId;
+    private final Direction direction;
+    private final long timestamp;
+
+    /**
+     * Constructs a new scan event.
+     *
+     * @param itemId    ID of the scanned item
+     * @param badgeId   staff ID read from the badge
+     * @param direction whether the item is being checked out or in
+     * @param timestamp time of the scan in epoch milliseconds
+     */
+    public ScanEvent(String itemId, String badgeId, Direction direction, long timestamp) {
+        this.itemId = itemId;
+        this.badgeId = badgeId;
+        this.direction = direction;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Parses a scan line.
+     *
+     * @param line       the text line
+     * @param receivedAt time to use when the line carries no time of its own
+     * @return the parsed event
+     * @throws IllegalArgumentException if the line is not a valid scan
+     */
+    public static ScanEvent parse(String line, long receivedAt) {
+        String[] fields = line.split(",");
+        if (fields.length < 3 || fields.length > 4) {
+            throw new IllegalArgumentException("Malformed scan: " + line);
+        }
+        String itemId = fields[0].trim();
+        String badgeId = fields[1].trim();
+        if (itemId.isEmpty() || badgeId.isEmpty()) {
+            throw new IllegalArgumentException("Malformed scan: " + line);
+        }
+        Direction direction = Direction.valueOf(fields[2].trim().toUpperCase());
+        long timestamp = fields.length == 4 ? Long.parseLong(fields[3].trim()) : receivedAt;
+        return new ScanEvent(itemId, badgeId, direction, timestamp);
+    }
+
+    /**
+     * Returns the ID of the scanned item.
+     */
+    public String getItemId() {
+        return itemId;
+    }
+
+    /**
+     * Returns the staff ID read from the badge.
+     */
+    public String getBadgeId() {
+        return badgeId;
+    }
+
+    /**
+     * Returns whether the item is being checked out or in.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Returns the time of the scan in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the scan in its line format.
+     */
+    @Override
+    public String toString() {
+        return itemId + "," + badgeId + "," + direction + "," + timestamp;
+    }
+}
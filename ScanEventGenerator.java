@@ -0,0 +1,177 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates synthetic scanner traffic for testing the
+ * {@link ScanIngestionPipeline}. The generator keeps track of which items it
+ * has checked out to which badge, so most scans are plausible check-outs and
+ * check-ins, and it repeats a share of the scans the way RFID door readers
+ * report the same tag several times.
+ *
+ * Options are given as {@code --name=value}; exactly one of {@code --port}
+ * and {@code --file} is required:
+ * <pre>
+ *   --port=7070           send scans to a pipeline listening on this local port
+ *   --file=scans.log      append scans to this file instead
+ *   --events=10000        number of distinct scans to generate
+ *   --rate=1000           scans per second, or 0 to send as fast as possible
+ *   --duplicates=0.3      share of scans that are immediately read again
+ *   --items=2000          item IDs ITM0000000.. as created by the WorkloadSimulator
+ *   --staff=200           staff IDs S00000.. as created by the WorkloadSimulator
+ *   --item-ids=E1,E2      explicit item IDs (instead of --items)
+ *   --staff-ids=S1,S2     explicit staff IDs (instead of --staff)
+ *   --seed=42             random seed
+ * </pre>
+ */
+public class ScanEventGenerator {
+    private int port = -1;
+    private String file;
+    private int events = 10_000;
+    private int rate = 1_000;
+    private double duplicates = 0.3;
+    private String[] itemIds = numberedIds("ITM%07d", 2000);
+    private String[] staffIds = numberedIds("S%05d", 200);
+    private long seed = 42;
+
+    public static void main(String[] args) {
+        ScanEventGenerator generator = new ScanEventGenerator();
+        try {
+            generator.parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid option: " + e.getMessage());
+            return;
+        }
+        try {
+            generator.run();
+        } catch (IOException e) {
+            System.out.println("Could not send scans: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String[] numberedIds(String format, int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = String.format(format, i);
+        }
+        return ids;
+    }
+
+    private void parseOptions(String[] args) {
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException(arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "file":
+                    file = value;
+                    break;
+                case "events":
+                    events = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    rate = Integer.parseInt(value);
+                    break;
+                case "duplicates":
+                    duplicates = Double.parseDouble(value);
+                    break;
+                case "items":
+                    itemIds = numberedIds("ITM%07d", Integer.parseInt(value));
+                    break;
+                case "staff":
+                    staffIds = numberedIds("S%05d", Integer.parseInt(value));
+                    break;
+                case "item-ids":
+                    itemIds = value.split(",");
+                    break;
+                case "staff-ids":
+                    staffIds = value.split(",");
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(arg);
+            }
+        }
+        if ((port < 0) == (file == null)) {
+            throw new IllegalArgumentException("give exactly one of --port and --file");
+        }
+        if (itemIds.length == 0 || staffIds.length == 0 || duplicates < 0 || duplicates >= 1) {
+            throw new IllegalArgumentException("need items and staff, and --duplicates between 0 and 1");
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+        if (port >= 0) {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                    Writer out = new BufferedWriter(
+                            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                generate(out);
+            }
+        } else {
+            try (Writer out = Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                generate(out);
+            }
+        }
+    }
+
+    /**
+     * Writes the scans, pacing them to the configured rate. Sending blocks
+     * when the pipeline applies backpressure, so the achieved rate can be
+     * lower than requested.
+     */
+    private void generate(Writer out) throws IOException, InterruptedException {
+        Random random = new Random(seed);
+        int[] holder = new int[itemIds.length];
+        Arrays.fill(holder, -1);
+        long begin = System.nanoTime();
+        long sent = 0;
+        for (int i = 0; i < events; i++) {
+            int item = random.nextInt(itemIds.length);
+            String line;
+            if (holder[item] < 0) {
+                holder[item] = random.nextInt(staffIds.length);
+                line = itemIds[item] + "," + staffIds[holder[item]] + "," + ScanEvent.Direction.OUT;
+            } else {
+                line = itemIds[item] + "," + staffIds[holder[item]] + "," + ScanEvent.Direction.IN;
+                holder[item] = -1;
+            }
+            do {
+                out.write(line);
+                out.write('\n');
+                sent++;
+            } while (random.nextDouble() < duplicates);
+            if (rate > 0) {
+                long due = begin + (long) ((i + 1) * 1e9 / rate);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    out.flush();
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                }
+            }
+        }
+        out.flush();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("Sent %d scans (%d distinct) in %.2f s: %.0f scans/s%n", sent, events, seconds,
+                sent / seconds);
+    }
+}
@@ -0,0 +1,311 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns a high-rate stream of barcode and RFID scans into assignments and
+ * returns. Scans arrive as text lines (see {@link ScanEvent}) from local
+ * socket connections or from a file that readers append to, and flow through
+ * three stages:
+ * <ol>
+ * <li>Sources parse lines and put events on a bounded queue. When the queue
+ * is full the sources block, which stops reading from the socket or file and
+ * so pushes back on the scanners instead of buffering without limit.</li>
+ * <li>A single applier thread takes events off the queue and drops repeated
+ * reads, as door readers report a tag many times while it passes: a scan is
+ * dropped when the last scan accepted for the same item had the same badge
+ * and direction and falls within the dedup window. Any other scan of the
+ * item in between, such as a return, ends the repeat.</li>
+ * <li>The remaining events are grouped into batches of up to the batch size
+ * (waiting at most the linger time for a batch to fill) and each batch is
+ * applied with {@link UniversityInventorySystem#applyScanBatch}.</li>
+ * </ol>
+ */
+public class ScanIngestionPipeline {
+    static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    static final int DEFAULT_BATCH_SIZE = 256;
+    static final long DEFAULT_DEDUP_WINDOW_MILLIS = 2_000;
+    static final long DEFAULT_LINGER_MILLIS = 20;
+
+    // How often the file tail checks for newly appended scans
+    private static final long TAIL_POLL_MILLIS = 100;
+
+    private final BlockingQueue<ScanEvent> queue;
+    private final int batchSize;
+    private final long dedupWindowMillis;
+    private final long lingerMillis;
+
+    // Last accepted scan of each item, by lower-case item ID; only used by the applier thread
+    private final LinkedHashMap<String, ScanEvent> lastAccepted = new LinkedHashMap<>();
+
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final List<AutoCloseable> resources = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Creates a pipeline with the default queue capacity, batch size, dedup
+     * window and linger time.
+     */
+    public ScanIngestionPipeline() {
+        this(DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_DEDUP_WINDOW_MILLIS, DEFAULT_LINGER_MILLIS);
+    }
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param queueCapacity     maximum number of scans waiting to be applied
+     * @param batchSize         maximum number of scans applied together
+     * @param dedupWindowMillis repeated scans within this time are dropped
+     * @param lingerMillis      longest time to wait for a batch to fill
+     */
+    public ScanIngestionPipeline(int queueCapacity, int batchSize, long dedupWindowMillis, long lingerMillis) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.dedupWindowMillis = dedupWindowMillis;
+        this.lingerMillis = lingerMillis;
+    }
+
+    /**
+     * Starts the applier thread. Sources can be added before or after.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startThread("scan-applier", this::applyLoop);
+    }
+
+    /**
+     * Accepts scanner connections on the given port of the loopback
+     * interface. Each connection sends one scan per line.
+     *
+     * @param port TCP port to listen on
+     * @throws IOException if the port cannot be opened
+     */
+    public void listen(int port) throws IOException {
+        ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        resources.add(server);
+        startThread("scan-listener-" + port, () -> {
+            while (running) {
+                try {
+                    Socket socket = server.accept();
+                    resources.add(socket);
+                    startThread("scan-connection-" + socket.getPort(), () -> readConnection(socket));
+                } catch (IOException e) {
+                    return; // server socket closed
+                }
+            }
+        });
+    }
+
+    /**
+     * Follows a file that scanners append lines to, starting from its current
+     * end, in the manner of {@code tail -f}.
+     *
+     * @param file the file to follow
+     * @throws IOException if the file cannot be opened
+     */
+    public void tail(Path file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+        resources.add(raf);
+        long start = raf.length();
+        startThread("scan-tail-" + file.getFileName(), () -> tailFile(raf, start));
+    }
+
+    /**
+     * Adds one scan to the pipeline, waiting while the queue is full.
+     *
+     * @param event the scan
+     * @throws InterruptedException if interrupted while waiting for space
+     */
+    public void submit(ScanEvent event) throws InterruptedException {
+        received.incrementAndGet();
+        queue.put(event);
+    }
+
+    /**
+     * Stops all sources and the applier. Scans still in the queue are
+     * discarded.
+     */
+    public synchronized void stop() {
+        running = false;
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                // already closed
+            }
+        }
+        resources.clear();
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        threads.clear();
+    }
+
+    /**
+     * Returns whether the pipeline has been started and not stopped.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns a one-line summary of the pipeline counters.
+     */
+    public String getStatistics() {
+        return String.format("Received: %d, Malformed: %d, Duplicates dropped: %d, Applied: %d, Rejected: %d, "
+                + "Batches: %d, Queued: %d", received.get(), malformed.get(), duplicates.get(), applied.get(),
+                rejected.get(), batches.get(), queue.size());
+    }
+
+    private void startThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    private void readConnection(Socket socket) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                acceptLine(line);
+            }
+        } catch (IOException e) {
+            // connection closed by the scanner or by stop()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            resources.remove(socket);
+            threads.remove(Thread.currentThread());
+        }
+    }
+
+    private void tailFile(RandomAccessFile raf, long start) {
+        try {
+            long position = start;
+            StringBuilder partial = new StringBuilder();
+            byte[] buffer = new byte[8192];
+            while (running) {
+                if (raf.length() < position) {
+                    position = 0; // file was truncated or replaced; start over
+                    partial.setLength(0);
+                }
+                raf.seek(position);
+                int n = raf.read(buffer);
+                if (n <= 0) {
+                    Thread.sleep(TAIL_POLL_MILLIS);
+                    continue;
+                }
+                position += n;
+                // scan lines are ASCII, so bytes can be treated as characters
+                for (int i = 0; i < n; i++) {
+                    char c = (char) buffer[i];
+                    if (c == '\n') {
+                        acceptLine(partial.toString());
+                        partial.setLength(0);
+                    } else if (c != '\r') {
+                        partial.append(c);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // file closed by stop()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLine(String line) throws InterruptedException {
+        if (line.trim().isEmpty()) {
+            return;
+        }
+        ScanEvent event;
+        try {
+            event = ScanEvent.parse(line, System.currentTimeMillis());
+        } catch (IllegalArgumentException e) {
+            malformed.incrementAndGet();
+            return;
+        }
+        submit(event);
+    }
+
+    private void applyLoop() {
+        List<ScanEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                ScanEvent first = queue.take();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                addUnlessDuplicate(first, batch);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    ScanEvent next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    addUnlessDuplicate(next, batch);
+                }
+                if (!batch.isEmpty()) {
+                    int count = UniversityInventorySystem.applyScanBatch(batch);
+                    applied.addAndGet(count);
+                    rejected.addAndGet(batch.size() - count);
+                    batches.incrementAndGet();
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds the event to the batch unless it repeats the last scan accepted
+     * for the same item (same badge and direction) within the dedup window.
+     */
+    private void addUnlessDuplicate(ScanEvent event, List<ScanEvent> batch) {
+        long now = event.getTimestamp();
+        // forget scans that have left the window; entries are in insertion order
+        Iterator<Map.Entry<String, ScanEvent>> oldest = lastAccepted.entrySet().iterator();
+        while (oldest.hasNext() && now - oldest.next().getValue().getTimestamp() >= dedupWindowMillis) {
+            oldest.remove();
+        }
+        String key = event.getItemId().toLowerCase();
+        ScanEvent previous = lastAccepted.get(key);
+        if (previous != null && now - previous.getTimestamp() < dedupWindowMillis
+                && previous.getDirection() == event.getDirection()
+                && previous.getBadgeId().equalsIgnoreCase(event.getBadgeId())) {
+            duplicates.incrementAndGet();
+            return;
+        }
+        // re-insert so the map stays ordered by the time each item was last accepted
+        lastAccepted.remove(key);
+        lastAccepted.put(key, event);
+        batch.add(event);
+    }
+}
@@ -4,7 +4,9 @@ import java.util.Arrays;
  * Represents a staff member who can borrow inventory items from the university
  * system. Each staff member has a unique identifier, a name, and can be
  * assigned up to a fixed number of items. The class provides methods to assign
- * and return items while enforcing limits and checking availability.
+ * and return items while enforcing limits and checking availability. The
+ * assignment methods are synchronized so a staff member's item list can be
+ * read safely while other threads assign or return items.
  */
 public class StaffMember {
     private static final int MAX_ITEMS = 5;
@@ -50,7 +52,8 @@ public class StaffMember {
      * @throws AssignmentLimitExceededException if staff has reached the limit
      * @throws ItemUnavailableException         if the item is not available
      */
-    public void assignItem(InventoryItem item) throws AssignmentLimitExceededException, ItemUnavailableException {
+    public synchronized void assignItem(InventoryItem item)
+            throws AssignmentLimitExceededException, ItemUnavailableException {
         if (itemCount >= MAX_ITEMS) {
             throw new AssignmentLimitExceededException("Staff member has reached the maximum allowed items.");
         }
@@ -68,7 +71,7 @@ public class StaffMember {
      *
      * @param item the inventory item to return
      */
-    public void returnItem(InventoryItem item) {
+    public synchronized void returnItem(InventoryItem item) {
         for (int i = 0; i < itemCount; i++) {
             if (assignedItems[i] != null && assignedItems[i].getId().equals(item.getId())) {
                 // mark item available again
@@ -88,12 +91,26 @@ public class StaffMember {
      * Returns the array of assigned items. May contain null values if the
      * staff member has fewer than the maximum number of items.
      */
-    public InventoryItem[] getAssignedItems() {
+    public synchronized InventoryItem[] getAssignedItems() {
         return Arrays.copyOf(assignedItems, itemCount);
     }
 
+    /**
+     * Returns a detached copy of this staff member and the items they hold.
+     * Copies are used for point-in-time snapshots and are not modified
+     * afterwards.
+     */
+    public synchronized StaffMember copy() {
+        StaffMember copy = new StaffMember(staffId, name);
+        for (int i = 0; i < itemCount; i++) {
+            copy.assignedItems[i] = assignedItems[i].copy();
+        }
+        copy.itemCount = itemCount;
+        return copy;
+    }
+
     @Override
-    public String toString() {
+    public synchronized String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("Staff ID: %s, Name: %s, Assigned Items: %d\n", staffId, name, itemCount));
         for (int i = 0; i < itemCount; i++) {
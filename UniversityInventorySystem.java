@@ -1,7 +1,16 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 /**
  * Main class for the University Inventory Management System. This class
@@ -13,7 +22,7 @@ import java.util.Scanner;
  */
 public class UniversityInventorySystem {
 
-    // Maximum number of inventory items and staff members that can be stored
+    // Default maximum number of inventory items and staff members that can be stored
     private static final int MAX_INVENTORY = 100;
     private static final int MAX_STAFF = 50;
 
@@ -23,23 +32,113 @@ public class UniversityInventorySystem {
     private static StaffMember[] staffMembers = new StaffMember[MAX_STAFF];
     private static int staffCount = 0;
 
+    // Guards changes to the arrays above so the inventory can be used from several threads
+    private static final Object STORE_LOCK = new Object();
+
+    // Where items are kept (campus/building/floor/room); guarded by STORE_LOCK
+    private static LocationIndex locations = new LocationIndex();
+
+    // Sorted listings of items and staff for paging; changed under STORE_LOCK, read without it
+    private static volatile ListingIndex listings = new ListingIndex();
+
+    // Items whose archive record is being written; they cannot be assigned meanwhile. Guarded by STORE_LOCK
+    private static final Set<InventoryItem> retiring = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Latest read-only view of the arrays above; replaced (under STORE_LOCK) after every change
+    private static volatile InventorySnapshot snapshot = InventorySnapshot.EMPTY;
+
+    // Cold storage for retired items; the directory can be overridden with -Dinventory.archive.dir
+    private static final ItemArchive archive = new ItemArchive(
+            Paths.get(System.getProperty("inventory.archive.dir", "archive")));
+
+    // Ingests desk and door scans in the background once started from the menu
+    private static ScanIngestionPipeline scanPipeline;
+
+    // Ships changes to read replicas when started with --replication-port; set before the menu starts
+    private static ReplicationPrimary replication;
+
+    // Set when started with --replica-of; the console is then read-only
+    private static ReplicationReplica replicaOf;
+
     // Scanner for user input
     private static final Scanner scanner = new Scanner(System.in);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     public static void main(String[] args) {
+        try {
+            parseOptions(args);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Invalid option: " + e.getMessage());
+            return;
+        }
         System.out.println("Welcome to the University Inventory Management System!");
+        if (replication != null) {
+            System.out.println("Shipping changes to replicas (see Replication Status in Reports).");
+        }
+        if (replicaOf != null) {
+            System.out.println("Running as a read-only replica; make changes on the primary.");
+        }
         boolean quit;
         do {
             displayMenu();
             int choice = readInt("Enter your choice: ");
             quit = handleChoice(choice);
         } while (!quit);
+        if (scanPipeline != null) {
+            scanPipeline.stop();
+        }
+        if (replication != null) {
+            replication.stop();
+        }
+        if (replicaOf != null) {
+            replicaOf.stop();
+        }
+        // write any retired items still buffered in memory to the archive
+        try {
+            archive.flush();
+        } catch (IOException e) {
+            System.out.println("Failed to write the archive: " + e.getMessage());
+        }
         System.out.println("Thank you for using the inventory system. Goodbye!");
         // close the scanner before exiting
         scanner.close();
     }
 
+    /**
+     * Reads the command line options: {@code --replication-port=N} ships
+     * changes to replicas connecting to local port N, and
+     * {@code --replica-of=host:port} follows the primary at that address as a
+     * read-only replica.
+     *
+     * @throws IOException if the replication port cannot be opened
+     */
+    private static void parseOptions(String[] args) throws IOException {
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException(arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "replication-port":
+                    replication = new ReplicationPrimary(Integer.parseInt(value));
+                    break;
+                case "replica-of": {
+                    int colon = value.lastIndexOf(':');
+                    if (colon <= 0) {
+                        throw new IllegalArgumentException("--replica-of must be host:port");
+                    }
+                    replicaOf = new ReplicationReplica(value.substring(0, colon),
+                            Integer.parseInt(value.substring(colon + 1)));
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException(arg);
+            }
+        }
+    }
+
     /**
      * Displays the main menu options to the user.
      */
@@ -51,7 +150,10 @@ public class UniversityInventorySystem {
         System.out.println("4. Return Item from Staff");
         System.out.println("5. Search Inventory");
         System.out.println("6. Generate Reports");
-        System.out.println("7. Exit");
+        System.out.println("7. Retire Item to Archive");
+        System.out.println("8. Scan Ingestion");
+        System.out.println("9. Locations");
+        System.out.println("10. Exit");
     }
 
     /**
@@ -59,6 +161,12 @@ public class UniversityInventorySystem {
      * true if the user chooses to quit the program.
      */
     private static boolean handleChoice(int choice) {
+        // a replica only serves searches and reports; its data comes from the primary
+        boolean changesData = choice == 1 || choice == 2 || choice == 3 || choice == 4 || choice == 7
+                || choice == 8;
+        if (changesData && refuseOnReplica()) {
+            return false;
+        }
         switch (choice) {
             case 1:
                 addInventoryItem();
@@ -79,13 +187,36 @@ public class UniversityInventorySystem {
                 generateReportsMenu();
                 break;
             case 7:
+                retireItem();
+                break;
+            case 8:
+                scanIngestionMenu();
+                break;
+            case 9:
+                locationsMenu();
+                break;
+            case 10:
                 return true;
             default:
-                System.out.println("Invalid choice. Please select an option from 1 to 7.");
+                System.out.println("Invalid choice. Please select an option from 1 to 10.");
         }
         return false;
     }
 
+    /**
+     * Tells the user that changes must be made on the primary, if this
+     * process is a read-only replica.
+     *
+     * @return true if this process is a replica
+     */
+    private static boolean refuseOnReplica() {
+        if (replicaOf == null) {
+            return false;
+        }
+        System.out.println("This is a read-only replica; make changes on the primary.");
+        return true;
+    }
+
     /**
      * Reads an integer from the user, prompting until a valid integer is
      * provided. If the input is invalid, the user is warned and asked again.
@@ -136,7 +267,7 @@ public class UniversityInventorySystem {
      * Adds a new inventory item by prompting the user for type and details.
      */
     private static void addInventoryItem() {
-        if (inventoryCount >= MAX_INVENTORY) {
+        if (isInventoryFull()) {
             System.out.println("Inventory is full; cannot add more items.");
             return;
         }
@@ -173,8 +304,16 @@ public class UniversityInventorySystem {
                 System.out.println("Invalid type selection. Returning to main menu.");
                 return;
         }
-        inventory[inventoryCount++] = item;
-        System.out.println("Item added successfully!");
+        String roomPath = readRoomPath("Enter location as campus/building/floor/room (blank for none): ", true);
+        try {
+            if (addItem(item, roomPath)) {
+                System.out.println("Item added successfully!");
+            } else {
+                System.out.println("Inventory is full; cannot add more items.");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Could not add item: " + e.getMessage());
+        }
     }
 
     /**
@@ -192,11 +331,46 @@ public class UniversityInventorySystem {
         }
     }
 
+    /**
+     * Reads a room path (campus/building/floor/room), prompting until a valid
+     * path is given. Returns null for a blank answer if blanks are allowed.
+     */
+    private static String readRoomPath(String prompt, boolean allowBlank) {
+        while (true) {
+            System.out.print(prompt);
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty()) {
+                if (allowBlank) {
+                    return null;
+                }
+                System.out.println("This field cannot be empty. Please try again.");
+            } else if (isRoomPath(input)) {
+                return input;
+            } else {
+                System.out.println("Please enter the location as campus/building/floor/room.");
+            }
+        }
+    }
+
+    // Four non-blank names separated by '/'
+    private static boolean isRoomPath(String input) {
+        String[] parts = input.split("/", -1);
+        if (parts.length != 4) {
+            return false;
+        }
+        for (String part : parts) {
+            if (part.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Registers a new staff member by requesting a unique staff ID and name.
      */
     private static void registerStaffMember() {
-        if (staffCount >= MAX_STAFF) {
+        if (isStaffFull()) {
             System.out.println("Cannot register more staff members.");
             return;
         }
@@ -207,8 +381,11 @@ public class UniversityInventorySystem {
             return;
         }
         String name = promptNonEmpty("Enter staff name: ");
-        staffMembers[staffCount++] = new StaffMember(id, name);
-        System.out.println("Staff member registered successfully!");
+        if (registerStaff(new StaffMember(id, name))) {
+            System.out.println("Staff member registered successfully!");
+        } else {
+            System.out.println("Staff member could not be registered; the ID is taken or the staff list is full.");
+        }
     }
 
     /**
@@ -217,11 +394,11 @@ public class UniversityInventorySystem {
      * conditions are violated.
      */
     private static void assignItemToStaff() {
-        if (staffCount == 0) {
+        if (getStaffCount() == 0) {
             System.out.println("No staff registered yet. Please register staff first.");
             return;
         }
-        if (inventoryCount == 0) {
+        if (getInventoryCount() == 0) {
             System.out.println("No inventory items available. Please add items first.");
             return;
         }
@@ -238,7 +415,7 @@ public class UniversityInventorySystem {
             return;
         }
         try {
-            staff.assignItem(item);
+            assignItem(staff, item);
             System.out.println("Item assigned successfully to staff member.");
         } catch (AssignmentLimitExceededException | ItemUnavailableException e) {
             System.out.println("Assignment failed: " + e.getMessage());
@@ -249,7 +426,7 @@ public class UniversityInventorySystem {
      * Returns an item from a staff member back to inventory.
      */
     private static void returnItemFromStaff() {
-        if (staffCount == 0) {
+        if (getStaffCount() == 0) {
             System.out.println("No staff registered.");
             return;
         }
@@ -265,40 +442,63 @@ public class UniversityInventorySystem {
             System.out.println("Item not found.");
             return;
         }
-        // before returning, ensure staff actually has this item assigned
-        InventoryItem[] assigned = staff.getAssignedItems();
-        boolean hasItem = false;
-        for (InventoryItem it : assigned) {
-            if (it.getId().equals(itemId)) {
-                hasItem = true;
-                break;
-            }
-        }
-        if (!hasItem) {
+        if (returnItem(staff, item)) {
+            System.out.println("Item returned successfully.");
+        } else {
             System.out.println("This staff member does not hold this item.");
-            return;
         }
-        // perform return
-        staff.returnItem(item);
-        System.out.println("Item returned successfully.");
     }
 
     /**
-     * Presents a menu for searching inventory by ID or by name.
+     * Retires an available item: it is removed from the live inventory and
+     * moved into the archive, where it remains searchable for audits.
      */
-    private static void searchInventoryMenu() {
-        if (inventoryCount == 0) {
-            System.out.println("No items in inventory to search.");
+    private static void retireItem() {
+        if (getInventoryCount() == 0) {
+            System.out.println("No items in inventory.");
             return;
         }
+        String itemId = promptNonEmpty("Enter item ID to retire: ");
+        InventoryItem item = findItemById(itemId);
+        if (item == null) {
+            System.out.println("Item not found.");
+            return;
+        }
+        try {
+            retireItem(item);
+            System.out.println("Item retired and moved to the archive.");
+        } catch (ItemUnavailableException e) {
+            System.out.println("Retirement failed: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Retirement failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Presents a menu for searching inventory by ID or by name, or the archive
+     * of retired items by ID or purchase date.
+     */
+    private static void searchInventoryMenu() {
         System.out.println("\nSearch by:");
         System.out.println("1. Item ID");
         System.out.println("2. Item Name");
+        System.out.println("3. Archived Item ID");
+        System.out.println("4. Archived Items by Purchase Date");
+        System.out.println("5. Brand, Material or Lab Type");
         int choice = readInt("Choice: ");
+        if ((choice == 1 || choice == 2 || choice == 5) && getInventoryCount() == 0) {
+            System.out.println("No items in inventory to search.");
+            return;
+        }
+        if ((choice == 3 || choice == 4) && replicaOf != null) {
+            // retirements reach a replica only as removals; the archive itself is written on the primary
+            System.out.println("The archive is kept on the primary; search archived items there.");
+            return;
+        }
         switch (choice) {
             case 1: {
                 String id = promptNonEmpty("Enter item ID: ");
-                InventoryItem item = findItemById(id);
+                InventoryItem item = snapshot().findItemById(id);
                 if (item != null) {
                     System.out.println("Item found:\n" + item);
                 } else {
@@ -308,7 +508,7 @@ public class UniversityInventorySystem {
             }
             case 2: {
                 String name = promptNonEmpty("Enter item name: ");
-                InventoryItem[] items = findItemsByName(name);
+                InventoryItem[] items = snapshot().findItemsByName(name);
                 if (items.length > 0) {
                     System.out.println("Items found:");
                     for (InventoryItem item : items) {
@@ -319,11 +519,199 @@ public class UniversityInventorySystem {
                 }
                 break;
             }
+            case 3: {
+                String id = promptNonEmpty("Enter item ID: ");
+                try {
+                    ArchivedItem archived = archive.findById(id);
+                    if (archived != null) {
+                        System.out.println("Archived item found:\n" + archived);
+                    } else {
+                        System.out.println("No archived item found with the given ID.");
+                    }
+                } catch (IOException e) {
+                    System.out.println("Archive search failed: " + e.getMessage());
+                }
+                break;
+            }
+            case 4: {
+                LocalDate from = readDate("Purchased on or after");
+                LocalDate to = readDate("Purchased on or before");
+                try {
+                    List<ArchivedItem> archived = archive.findByPurchaseDate(from, to);
+                    if (!archived.isEmpty()) {
+                        System.out.println("Archived items found:");
+                        for (ArchivedItem item : archived) {
+                            System.out.println(item);
+                        }
+                    } else {
+                        System.out.println("No archived items were purchased in that period.");
+                    }
+                } catch (IOException e) {
+                    System.out.println("Archive search failed: " + e.getMessage());
+                }
+                break;
+            }
+            case 5: {
+                String value = promptNonEmpty("Enter brand, material or lab type: ");
+                InventoryItem[] items = snapshot().findItemsByCategory(value);
+                if (items.length > 0) {
+                    System.out.println("Items found:");
+                    for (InventoryItem item : items) {
+                        System.out.println(item);
+                    }
+                } else {
+                    System.out.println("No items found with the given brand, material or lab type.");
+                }
+                break;
+            }
             default:
                 System.out.println("Invalid choice.");
         }
     }
 
+    /**
+     * Presents a submenu for moving items between rooms and listing what is
+     * kept in a campus, building, floor or room.
+     */
+    private static void locationsMenu() {
+        System.out.println("\nLocations:");
+        System.out.println("1. Move Item to Room");
+        System.out.println("2. List Items in a Location");
+        System.out.println("3. List Available Items of a Type in a Location");
+        System.out.println("4. Show All Locations");
+        int choice = readInt("Choice: ");
+        try {
+            switch (choice) {
+                case 1: {
+                    if (refuseOnReplica()) {
+                        return;
+                    }
+                    String itemId = promptNonEmpty("Enter item ID to move: ");
+                    InventoryItem item = findItemById(itemId);
+                    if (item == null) {
+                        System.out.println("Item not found.");
+                        return;
+                    }
+                    String roomPath = readRoomPath("Enter new location as campus/building/floor/room: ", false);
+                    moveItem(item, roomPath);
+                    System.out.println("Item moved successfully.");
+                    break;
+                }
+                case 2: {
+                    String path = promptNonEmpty("Enter campus, building, floor or room (e.g. Main/Science): ");
+                    printItems(findItemsUnder(path), "No items are kept there.");
+                    break;
+                }
+                case 3: {
+                    String path = promptNonEmpty("Enter campus, building, floor or room (e.g. Main/Science): ");
+                    System.out.println("Item type: 1. Equipment  2. Furniture  3. Lab Equipment");
+                    int typeCode = readInt("Choice: ");
+                    if (typeCode < 1 || typeCode > 3) {
+                        System.out.println("Invalid type selection.");
+                        return;
+                    }
+                    List<InventoryItem> items = findAvailableItemsUnder(path, typeCode);
+                    System.out.print("Enter item name to narrow the list (blank for all): ");
+                    String name = scanner.nextLine().trim();
+                    if (items != null && !name.isEmpty()) {
+                        items.removeIf(item -> !item.getName().equalsIgnoreCase(name));
+                    }
+                    printItems(items, "No matching items are available there.");
+                    break;
+                }
+                case 4:
+                    reportLocations(System.out);
+                    break;
+                default:
+                    System.out.println("Invalid choice.");
+            }
+        } catch (ItemUnavailableException | IllegalArgumentException e) {
+            System.out.println("Location operation failed: " + e.getMessage());
+        }
+    }
+
+    private static void printItems(List<InventoryItem> items, String emptyMessage) {
+        if (items == null) {
+            System.out.println("Location not found.");
+        } else if (items.isEmpty()) {
+            System.out.println(emptyMessage);
+        } else {
+            System.out.println("Items found:");
+            for (InventoryItem item : items) {
+                System.out.println(item);
+            }
+        }
+    }
+
+    /**
+     * Presents a submenu for receiving barcode and RFID scans in the
+     * background, either from scanners connecting to a local port or from a
+     * file the scanners append to.
+     */
+    private static void scanIngestionMenu() {
+        boolean running = scanPipeline != null && scanPipeline.isRunning();
+        System.out.println("\nScan ingestion is " + (running ? "running." : "stopped."));
+        System.out.println("1. Listen for Scanners on a Port");
+        System.out.println("2. Follow a Scan File");
+        System.out.println("3. Show Statistics");
+        System.out.println("4. Stop Ingestion");
+        int choice = readInt("Choice: ");
+        try {
+            switch (choice) {
+                case 1: {
+                    int port = readInt("Enter port: ");
+                    if (port < 0 || port > 65535) {
+                        System.out.println("Port must be between 0 and 65535.");
+                        return;
+                    }
+                    startScanPipeline().listen(port);
+                    System.out.println("Listening for scans on port " + port + ".");
+                    break;
+                }
+                case 2: {
+                    String file = promptNonEmpty("Enter scan file path: ");
+                    startScanPipeline().tail(Paths.get(file));
+                    System.out.println("Following scans appended to " + file + ".");
+                    break;
+                }
+                case 3:
+                    if (scanPipeline == null) {
+                        System.out.println("Scan ingestion has not been started.");
+                    } else {
+                        System.out.println(scanPipeline.getStatistics());
+                    }
+                    break;
+                case 4:
+                    if (running) {
+                        scanPipeline.stop();
+                        System.out.println("Scan ingestion stopped.");
+                    } else {
+                        System.out.println("Scan ingestion is not running.");
+                    }
+                    break;
+                default:
+                    System.out.println("Invalid choice.");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not start scan ingestion: " + e.getMessage());
+            if (!running && scanPipeline != null) {
+                // the pipeline was started for this source only; don't leave it running without one
+                scanPipeline.stop();
+            }
+        }
+    }
+
+    /**
+     * Returns the running scan pipeline, starting a new one if needed.
+     */
+    private static ScanIngestionPipeline startScanPipeline() {
+        if (scanPipeline == null || !scanPipeline.isRunning()) {
+            scanPipeline = new ScanIngestionPipeline();
+            scanPipeline.start();
+        }
+        return scanPipeline;
+    }
+
     /**
      * Presents a submenu for generating various reports.
      */
@@ -332,127 +720,787 @@ public class UniversityInventorySystem {
         System.out.println("1. Inventory List");
         System.out.println("2. Expired Warranties");
         System.out.println("3. Assignment Summary");
+        System.out.println("4. Items by Brand, Material and Lab Type");
+        System.out.println("5. Inventory List (Paged)");
+        System.out.println("6. Staff List (Paged)");
+        System.out.println("7. Replication Status");
         int choice = readInt("Choice: ");
         switch (choice) {
             case 1:
-                reportInventoryList();
+                reportInventoryList(System.out);
                 break;
             case 2:
-                reportExpiredWarranties();
+                reportExpiredWarranties(System.out);
                 break;
             case 3:
-                reportAssignmentSummary();
+                reportAssignmentSummary(System.out);
+                break;
+            case 4:
+                reportCategoryCounts(System.out);
+                break;
+            case 5:
+                pagedInventoryList();
+                break;
+            case 6:
+                pagedStaffList();
+                break;
+            case 7:
+                reportReplicationStatus(System.out);
                 break;
             default:
                 System.out.println("Invalid choice.");
         }
     }
 
+    /**
+     * Lists the inventory one page at a time in the order chosen by the user.
+     */
+    private static void pagedInventoryList() {
+        System.out.println("Order by: 1. Item ID  2. Name  3. Purchase Date  4. Warranty End");
+        int orderChoice = readInt("Choice: ");
+        if (orderChoice < 1 || orderChoice > 4) {
+            System.out.println("Invalid choice.");
+            return;
+        }
+        ListingIndex.ItemOrder order = ListingIndex.ItemOrder.values()[orderChoice - 1];
+        int pageSize = readPageSize();
+        String cursor = null;
+        int pageNumber = 1;
+        do {
+            Page<InventoryItem> page = listItems(order, cursor, pageSize);
+            if (page.getEntries().isEmpty()) {
+                System.out.println("No items in inventory.");
+                return;
+            }
+            System.out.println("\n=== Inventory List, Page " + pageNumber++ + " ===");
+            for (InventoryItem item : page.getEntries()) {
+                System.out.println(item);
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null && continuePaging());
+    }
+
+    /**
+     * Lists the staff and their assignments one page at a time in the order
+     * chosen by the user.
+     */
+    private static void pagedStaffList() {
+        System.out.println("Order by: 1. Staff ID  2. Name");
+        int orderChoice = readInt("Choice: ");
+        if (orderChoice < 1 || orderChoice > 2) {
+            System.out.println("Invalid choice.");
+            return;
+        }
+        ListingIndex.StaffOrder order = ListingIndex.StaffOrder.values()[orderChoice - 1];
+        int pageSize = readPageSize();
+        String cursor = null;
+        int pageNumber = 1;
+        do {
+            Page<StaffMember> page = listStaff(order, cursor, pageSize);
+            if (page.getEntries().isEmpty()) {
+                System.out.println("No staff registered.");
+                return;
+            }
+            System.out.println("\n=== Staff List, Page " + pageNumber++ + " ===");
+            for (StaffMember staff : page.getEntries()) {
+                System.out.println(staff);
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null && continuePaging());
+    }
+
+    private static int readPageSize() {
+        while (true) {
+            int pageSize = readInt("Entries per page: ");
+            if (pageSize > 0 && pageSize <= ListingIndex.MAX_PAGE_SIZE) {
+                return pageSize;
+            }
+            System.out.println("Please enter a number from 1 to " + ListingIndex.MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    private static boolean continuePaging() {
+        System.out.print("Press Enter for the next page or type q to stop: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+
+    /**
+     * Returns one page of the inventory. Pass null as the cursor for the
+     * first page and the previous page's cursor for the pages after it. The
+     * cost of a page does not depend on how far into the listing it is. Like
+     * {@link #snapshot()}, the page holds read-only copies of the items.
+     *
+     * @throws IllegalArgumentException if the cursor is invalid for this ordering or the page size is out of range
+     */
+    static Page<InventoryItem> listItems(ListingIndex.ItemOrder order, String cursor, int pageSize) {
+        return listings.itemPage(order, cursor, pageSize);
+    }
+
+    /**
+     * Returns one page of the staff list. Pass null as the cursor for the
+     * first page and the previous page's cursor for the pages after it. The
+     * page holds read-only copies of the staff members.
+     *
+     * @throws IllegalArgumentException if the cursor is invalid for this ordering or the page size is out of range
+     */
+    static Page<StaffMember> listStaff(ListingIndex.StaffOrder order, String cursor, int pageSize) {
+        return listings.staffPage(order, cursor, pageSize);
+    }
+
     /**
      * Generates a report listing all inventory items along with their details.
      * Demonstrates use of a basic for loop.
      */
-    private static void reportInventoryList() {
-        if (inventoryCount == 0) {
-            System.out.println("No items in inventory.");
+    static void reportInventoryList(PrintStream out) {
+        InventorySnapshot view = snapshot();
+        if (view.getItemCount() == 0) {
+            out.println("No items in inventory.");
             return;
         }
-        System.out.println("\n=== Inventory List ===");
-        for (int i = 0; i < inventoryCount; i++) {
-            System.out.println(inventory[i]);
+        out.println("\n=== Inventory List ===");
+        for (int i = 0; i < view.getItemCount(); i++) {
+            out.println(view.getItem(i));
         }
     }
 
     /**
-     * Generates a report of items whose warranty has expired. Demonstrates the use
-     * of an enhanced for-each loop.
+     * Generates a report of items whose warranty has expired.
      */
-    private static void reportExpiredWarranties() {
-        if (inventoryCount == 0) {
-            System.out.println("No items in inventory.");
+    static void reportExpiredWarranties(PrintStream out) {
+        InventorySnapshot view = snapshot();
+        if (view.getItemCount() == 0) {
+            out.println("No items in inventory.");
             return;
         }
         LocalDate today = LocalDate.now();
-        System.out.println("\n=== Items with Expired Warranties ===");
+        out.println("\n=== Items with Expired Warranties ===");
         boolean found = false;
-        for (InventoryItem item : inventory) {
-            if (item == null) {
-                continue;
-            }
+        for (int i = 0; i < view.getItemCount(); i++) {
+            InventoryItem item = view.getItem(i);
             LocalDate warrantyEnd = item.getWarrantyEndDate();
             if (warrantyEnd != null && warrantyEnd.isBefore(today)) {
-                System.out.println(item);
+                out.println(item);
                 found = true;
             }
         }
         if (!found) {
-            System.out.println("No items with expired warranties.");
+            out.println("No items with expired warranties.");
         }
     }
 
     /**
      * Generates a summary of staff assignments. Demonstrates a do-while loop.
      */
-    private static void reportAssignmentSummary() {
-        if (staffCount == 0) {
-            System.out.println("No staff registered.");
+    static void reportAssignmentSummary(PrintStream out) {
+        InventorySnapshot view = snapshot();
+        if (view.getStaffCount() == 0) {
+            out.println("No staff registered.");
             return;
         }
-        System.out.println("\n=== Assignment Summary ===");
+        out.println("\n=== Assignment Summary ===");
         int index = 0;
         // using do-while to ensure at least one iteration if staff exist
         do {
-            StaffMember staff = staffMembers[index];
-            if (staff != null) {
-                System.out.println(staff);
-            }
+            out.println(view.getStaff(index));
             index++;
-        } while (index < staffCount);
+        } while (index < view.getStaffCount());
     }
 
     /**
-     * Finds a staff member by ID using a simple for loop.
+     * Generates a report of how many items there are of each equipment brand,
+     * furniture material and lab type, and how many of them are available.
+     * Items are grouped by their dictionary codes.
      */
-    private static StaffMember findStaffById(String id) {
-        for (int i = 0; i < staffCount; i++) {
-            if (staffMembers[i] != null && staffMembers[i].getStaffId().equalsIgnoreCase(id)) {
-                return staffMembers[i];
+    static void reportCategoryCounts(PrintStream out) {
+        InventorySnapshot view = snapshot();
+        if (view.getItemCount() == 0) {
+            out.println("No items in inventory.");
+            return;
+        }
+        out.println("\n=== Items by Brand, Material and Lab Type ===");
+        printCategoryCounts(out, "Equipment by Brand", AttributeDictionary.BRANDS, view.countByBrand(false),
+                view.countByBrand(true));
+        printCategoryCounts(out, "Furniture by Material", AttributeDictionary.MATERIALS,
+                view.countByMaterial(false), view.countByMaterial(true));
+        printCategoryCounts(out, "Lab Equipment by Lab Type", AttributeDictionary.LAB_TYPES,
+                view.countByLabType(false), view.countByLabType(true));
+    }
+
+    private static void printCategoryCounts(PrintStream out, String title, AttributeDictionary dictionary,
+            int[] totals, int[] available) {
+        out.println(title + ":");
+        boolean any = false;
+        for (int code = 0; code < totals.length; code++) {
+            if (totals[code] > 0) {
+                out.printf("  %s: %d (%d available)%n", dictionary.decode(code), totals[code], available[code]);
+                any = true;
             }
         }
-        return null;
+        if (!any) {
+            out.println("  none");
+        }
     }
 
     /**
-     * Finds an inventory item by its ID.
+     * Returns a consistent, point-in-time view of the inventory and staff.
+     * Reading the view takes no locks; it does not change when the live
+     * inventory is modified afterwards.
      */
-    private static InventoryItem findItemById(String id) {
-        for (int i = 0; i < inventoryCount; i++) {
-            if (inventory[i] != null && inventory[i].getId().equalsIgnoreCase(id)) {
-                return inventory[i];
+    static InventorySnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Prints whether this process ships changes to replicas or follows a
+     * primary, and for a replica how far it is behind.
+     */
+    static void reportReplicationStatus(PrintStream out) {
+        out.println("\n=== Replication Status ===");
+        if (replication == null && replicaOf == null) {
+            out.println("Replication is off. Start with --replication-port=N to ship changes to replicas, "
+                    + "or with --replica-of=host:port to follow a primary.");
+        }
+        if (replication != null) {
+            out.printf("Primary: latest change #%d, %d replica(s) connected%n", replication.getSequence(),
+                    replication.getReplicaCount());
+        }
+        if (replicaOf != null) {
+            out.println("Replica: " + replicaOf.getStatus());
+        }
+    }
+
+    /**
+     * Replaces the inventory and staff lists with empty ones of the given
+     * capacity. Used to set up larger campuses than the interactive defaults,
+     * for example by the {@link WorkloadSimulator}.
+     */
+    static void resetStore(int maxInventory, int maxStaff) {
+        synchronized (STORE_LOCK) {
+            inventory = new InventoryItem[maxInventory];
+            inventoryCount = 0;
+            staffMembers = new StaffMember[maxStaff];
+            staffCount = 0;
+            locations = new LocationIndex();
+            listings = new ListingIndex();
+            snapshot = snapshot.withAllRemoved();
+            if (replication != null) {
+                replication.publish(ChangeRecord.reset(replication.nextSequence(), maxInventory, maxStaff));
             }
         }
-        return null;
     }
 
     /**
-     * Finds items by name (case insensitive). Demonstrates method overloading.
-     * Returns an array of matches.
+     * Returns the number of items in the live inventory.
      */
-    private static InventoryItem[] findItemsByName(String name) {
-        // first determine how many match to size the array properly
-        int count = 0;
-        for (int i = 0; i < inventoryCount; i++) {
-            if (inventory[i] != null && inventory[i].getName().equalsIgnoreCase(name)) {
-                count++;
+    static int getInventoryCount() {
+        return snapshot().getItemCount();
+    }
+
+    /**
+     * Returns the number of registered staff members.
+     */
+    static int getStaffCount() {
+        return snapshot().getStaffCount();
+    }
+
+    private static boolean isInventoryFull() {
+        synchronized (STORE_LOCK) {
+            return inventoryCount >= inventory.length;
+        }
+    }
+
+    private static boolean isStaffFull() {
+        synchronized (STORE_LOCK) {
+            return staffCount >= staffMembers.length;
+        }
+    }
+
+    /**
+     * Adds an item to the live inventory without placing it in a room.
+     *
+     * @param item the item to add
+     * @return false if the inventory is full
+     */
+    static boolean addItem(InventoryItem item) {
+        return addItem(item, null);
+    }
+
+    /**
+     * Adds an item to the live inventory and places it in a room, creating
+     * the room if it does not exist yet.
+     *
+     * @param item     the item to add
+     * @param roomPath campus/building/floor/room, or null to leave the item unplaced
+     * @return false if the inventory is full
+     * @throws IllegalArgumentException if the path does not name a room
+     */
+    static boolean addItem(InventoryItem item, String roomPath) {
+        synchronized (STORE_LOCK) {
+            if (inventoryCount >= inventory.length) {
+                return false;
+            }
+            Location room = roomPath == null ? null : locations.findRoom(roomPath, true);
+            if (room != null) {
+                locations.place(item, room);
+            }
+            inventory[inventoryCount++] = item;
+            snapshot = snapshot.withAddedItem(item);
+            InventoryItem copy = snapshot.getItem(inventoryCount - 1);
+            listings.addItem(item, copy);
+            locations.published(item, copy);
+            if (replication != null) {
+                replication.publish(ChangeRecord.addItem(replication.nextSequence(), item,
+                        room == null ? null : room.getPath()));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Registers a staff member.
+     *
+     * @param staff the staff member to register
+     * @return false if the staff list is full or the staff ID is already taken
+     */
+    static boolean registerStaff(StaffMember staff) {
+        synchronized (STORE_LOCK) {
+            if (staffCount >= staffMembers.length || findStaffById(staff.getStaffId()) != null) {
+                return false;
+            }
+            staffMembers[staffCount++] = staff;
+            snapshot = snapshot.withAddedStaff(staff);
+            listings.addStaff(staff, snapshot.getStaff(staffCount - 1));
+            if (replication != null) {
+                replication.publish(ChangeRecord.registerStaff(replication.nextSequence(), staff));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Assigns an item to a staff member.
+     *
+     * @throws AssignmentLimitExceededException if staff has reached the limit
+     * @throws ItemUnavailableException         if the item is not available
+     */
+    static void assignItem(StaffMember staff, InventoryItem item)
+            throws AssignmentLimitExceededException, ItemUnavailableException {
+        synchronized (STORE_LOCK) {
+            if (retiring.contains(item)) {
+                throw new ItemUnavailableException("Item is being retired.");
+            }
+            staff.assignItem(item);
+            locations.availabilityChanged(item);
+            publishItemChange(ChangeRecord.Type.ASSIGN, item, staff);
+        }
+    }
+
+    /**
+     * Returns an item from a staff member back to inventory.
+     *
+     * @return false if the staff member does not hold the item
+     */
+    static boolean returnItem(StaffMember staff, InventoryItem item) {
+        synchronized (STORE_LOCK) {
+            // before returning, ensure staff actually has this item assigned
+            boolean hasItem = false;
+            for (InventoryItem it : staff.getAssignedItems()) {
+                if (it.getId().equals(item.getId())) {
+                    hasItem = true;
+                    break;
+                }
+            }
+            if (!hasItem) {
+                return false;
+            }
+            staff.returnItem(item);
+            locations.availabilityChanged(item);
+            publishItemChange(ChangeRecord.Type.RETURN, item, staff);
+            return true;
+        }
+    }
+
+    /**
+     * Moves an available item from the live inventory into the archive. The
+     * archive is written without holding the store lock, so assignments and
+     * returns of other items carry on meanwhile; the item itself cannot be
+     * assigned until the write is over. The item leaves the live inventory
+     * only once the archive has recorded it, and stays there unchanged if the
+     * archive cannot be written.
+     *
+     * @throws ItemUnavailableException if the item is assigned, already being retired or no longer in
+     *                                  the inventory
+     * @throws IOException              if the archive cannot be written
+     */
+    static void retireItem(InventoryItem item) throws ItemUnavailableException, IOException {
+        synchronized (STORE_LOCK) {
+            if (indexOfItem(item) < 0) {
+                throw new ItemUnavailableException("Item is no longer in the inventory.");
+            }
+            if (!item.isAvailable()) {
+                throw new ItemUnavailableException(
+                        "Item is currently assigned and must be returned before it can be retired.");
+            }
+            if (!retiring.add(item)) {
+                throw new ItemUnavailableException("Item is already being retired.");
+            }
+        }
+        boolean archived = false;
+        try {
+            archive.retire(item, LocalDate.now());
+            archived = true;
+        } finally {
+            synchronized (STORE_LOCK) {
+                retiring.remove(item);
+                // the item may have moved up the array, or left it if the store was reset
+                int index = indexOfItem(item);
+                if (archived && index >= 0) {
+                    removeItemAt(index);
+                    if (replication != null) {
+                        replication.publish(ChangeRecord.retire(replication.nextSequence(), index, item.getId()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the item at the given position from the live inventory. Must be
+     * called while holding STORE_LOCK.
+     */
+    private static void removeItemAt(int index) {
+        InventoryItem item = inventory[index];
+        locations.remove(item);
+        listings.removeItem(item);
+        // remove from the live inventory by shifting elements down
+        for (int j = index; j < inventoryCount - 1; j++) {
+            inventory[j] = inventory[j + 1];
+        }
+        inventory[inventoryCount - 1] = null;
+        inventoryCount--;
+        snapshot = snapshot.withRemovedItem(index);
+    }
+
+    /**
+     * Moves an item to another room, creating the room if it does not exist
+     * yet.
+     *
+     * @param item     the item to move
+     * @param roomPath campus/building/floor/room
+     * @throws ItemUnavailableException if the item is no longer in the inventory
+     * @throws IllegalArgumentException if the path does not name a room
+     */
+    static void moveItem(InventoryItem item, String roomPath) throws ItemUnavailableException {
+        synchronized (STORE_LOCK) {
+            if (indexOfItem(item) < 0) {
+                throw new ItemUnavailableException("Item is no longer in the inventory.");
+            }
+            locations.place(item, locations.findRoom(roomPath, true));
+            StaffMember holder = null;
+            if (!item.isAvailable()) {
+                // the holder's copy in the snapshot shows the item's location too
+                for (int i = 0; i < staffCount && holder == null; i++) {
+                    for (InventoryItem held : staffMembers[i].getAssignedItems()) {
+                        if (held == item) {
+                            holder = staffMembers[i];
+                            break;
+                        }
+                    }
+                }
+            }
+            publishItemChange(ChangeRecord.Type.MOVE, item, holder);
+        }
+    }
+
+    /**
+     * Returns read-only copies of all items kept in a location or below it.
+     * The store lock is held only while the copies already published with
+     * the snapshot are gathered; no item is copied under it.
+     *
+     * @param path campus, campus/building, campus/building/floor or a full room path
+     * @return the items, or null if the location does not exist
+     * @throws IllegalArgumentException if the path is malformed
+     */
+    static List<InventoryItem> findItemsUnder(String path) {
+        synchronized (STORE_LOCK) {
+            Location node = locations.find(path, false);
+            return node == null ? null : locations.itemsUnder(node);
+        }
+    }
+
+    /**
+     * Returns read-only copies of the available items of one type kept in a
+     * location or below it.
+     *
+     * @param path     campus, campus/building, campus/building/floor or a full room path
+     * @param typeCode 1 for equipment, 2 for furniture, 3 for lab equipment
+     * @return the items, or null if the location does not exist
+     * @throws IllegalArgumentException if the path is malformed
+     */
+    static List<InventoryItem> findAvailableItemsUnder(String path, int typeCode) {
+        synchronized (STORE_LOCK) {
+            Location node = locations.find(path, false);
+            return node == null ? null : locations.availableUnder(node, typeCode);
+        }
+    }
+
+    /**
+     * Prints every location with the number of items kept in it and below it.
+     * The report is put together under the store lock and printed after it
+     * is released, so a slow console does not hold up assignments.
+     */
+    static void reportLocations(PrintStream out) {
+        StringBuilder report = new StringBuilder();
+        synchronized (STORE_LOCK) {
+            for (Location campus : locations.getCampuses()) {
+                appendLocation(report, campus, "");
+            }
+        }
+        if (report.length() == 0) {
+            out.println("No locations have been set up.");
+            return;
+        }
+        out.println("\n=== Locations ===");
+        out.print(report);
+    }
+
+    private static void appendLocation(StringBuilder report, Location location, String indent) {
+        report.append(String.format("%s%s (%s): %d items%n", indent, location.getName(), location.getLevel(),
+                location.getItemCount()));
+        for (Location child : location.getChildren()) {
+            appendLocation(report, child, indent + "  ");
+        }
+    }
+
+    /**
+     * Applies a batch of desk and door scans: OUT scans assign the item to the
+     * badge holder and IN scans return it. The store lock is taken once for
+     * the whole batch. Scans for unknown staff or items, and scans the
+     * console would refuse (such as checking out an unavailable item), are
+     * skipped.
+     *
+     * @param events scans in the order they were read
+     * @return number of scans that were applied
+     */
+    static int applyScanBatch(List<ScanEvent> events) {
+        int applied = 0;
+        synchronized (STORE_LOCK) {
+            for (ScanEvent event : events) {
+                StaffMember staff = findStaffById(event.getBadgeId());
+                InventoryItem item = findItemById(event.getItemId());
+                if (staff == null || item == null) {
+                    continue;
+                }
+                if (event.getDirection() == ScanEvent.Direction.OUT) {
+                    try {
+                        assignItem(staff, item);
+                        applied++;
+                    } catch (AssignmentLimitExceededException | ItemUnavailableException e) {
+                        // refused exactly as it would be at the console
+                    }
+                } else if (returnItem(staff, item)) {
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Publishes a new snapshot after an item was assigned, returned or moved,
+     * and ships the change to any replicas. Must be called while holding
+     * STORE_LOCK.
+     *
+     * @param change ASSIGN, RETURN or MOVE
+     * @param item   the changed item
+     * @param staff  the staff member whose items changed, or null if none did
+     */
+    private static void publishItemChange(ChangeRecord.Type change, InventoryItem item, StaffMember staff) {
+        int itemIndex = indexOfItem(item);
+        int staffIndex = -1;
+        for (int i = 0; staff != null && i < staffCount; i++) {
+            if (staffMembers[i] == staff) {
+                staffIndex = i;
+                break;
+            }
+        }
+        if (itemIndex < 0) {
+            return;
+        }
+        snapshot = snapshot.withChangedItem(itemIndex, item, staffIndex, staff);
+        // the listings and location searches show the same copies as the snapshot
+        InventoryItem copy = snapshot.getItem(itemIndex);
+        listings.itemChanged(item, copy);
+        locations.published(item, copy);
+        if (staffIndex >= 0) {
+            listings.staffChanged(staff, snapshot.getStaff(staffIndex));
+        }
+        if (replication != null) {
+            long sequence = replication.nextSequence();
+            replication.publish(change == ChangeRecord.Type.MOVE
+                    ? ChangeRecord.move(sequence, itemIndex, item.getId(), item.getLocation().getPath())
+                    : ChangeRecord.assignment(change, sequence, itemIndex, item.getId(), staffIndex,
+                            staff.getStaffId()));
+        }
+    }
+
+    /**
+     * Sends a full copy of the store to a newly connected replica and then
+     * starts shipping changes to it. The copy is taken under the store lock,
+     * so it lines up exactly with the first change that follows it. Every
+     * record of the copy carries the sequence number of the latest change.
+     */
+    static void attachReplica(ReplicationPrimary primary, Socket socket) {
+        synchronized (STORE_LOCK) {
+            long sequence = primary.getSequence();
+            List<ChangeRecord> fullCopy = new ArrayList<>();
+            fullCopy.add(ChangeRecord.reset(sequence, inventory.length, staffMembers.length));
+            for (Location campus : locations.getCampuses()) {
+                addRooms(fullCopy, sequence, campus);
+            }
+            for (int i = 0; i < inventoryCount; i++) {
+                Location room = inventory[i].getLocation();
+                fullCopy.add(ChangeRecord.addItem(sequence, inventory[i], room == null ? null : room.getPath()));
             }
+            for (int i = 0; i < staffCount; i++) {
+                fullCopy.add(ChangeRecord.registerStaff(sequence, staffMembers[i]));
+            }
+            for (int i = 0; i < staffCount; i++) {
+                // in holding order, so the replica's lists match
+                for (InventoryItem held : staffMembers[i].getAssignedItems()) {
+                    int itemIndex = indexOfItem(held);
+                    fullCopy.add(ChangeRecord.assignment(ChangeRecord.Type.ASSIGN, sequence, itemIndex,
+                            held.getId(), i, staffMembers[i].getStaffId()));
+                }
+            }
+            primary.attach(socket, fullCopy);
+        }
+    }
+
+    // Adds every room below the location, depth first, so the replica creates them in the same order
+    private static void addRooms(List<ChangeRecord> fullCopy, long sequence, Location location) {
+        if (location.getLevel() == Location.Level.ROOM) {
+            fullCopy.add(ChangeRecord.addRoom(sequence, location.getPath()));
+        }
+        for (Location child : location.getChildren()) {
+            addRooms(fullCopy, sequence, child);
+        }
+    }
+
+    /**
+     * Applies a change shipped by the primary to this replica's store. The
+     * replica's arrays match the primary's position for position, so the
+     * change is applied with the same operations the primary used (except
+     * that retired items are not archived again here).
+     *
+     * @throws IllegalStateException if the change does not match this store, in
+     *                               which case the replica must start again from a
+     *                               fresh copy
+     */
+    static void applyChange(ChangeRecord change) {
+        synchronized (STORE_LOCK) {
+            try {
+                switch (change.type) {
+                    case RESET:
+                        resetStore(change.itemIndex, change.staffIndex);
+                        break;
+                    case ADD_ROOM:
+                        locations.findRoom(change.text, true);
+                        break;
+                    case ADD_ITEM:
+                        if (!addItem(change.item, change.text)) {
+                            throw new IllegalStateException("inventory is full");
+                        }
+                        break;
+                    case REGISTER_STAFF:
+                        if (!registerStaff(new StaffMember(change.staffId, change.text))) {
+                            throw new IllegalStateException("staff " + change.staffId + " cannot be registered");
+                        }
+                        break;
+                    case ASSIGN:
+                        assignItem(staffAt(change), itemAt(change));
+                        break;
+                    case RETURN:
+                        if (!returnItem(staffAt(change), itemAt(change))) {
+                            throw new IllegalStateException("staff " + change.staffId + " does not hold "
+                                    + change.itemId);
+                        }
+                        break;
+                    case RETIRE:
+                        itemAt(change);
+                        removeItemAt(change.itemIndex);
+                        if (replication != null) {
+                            replication.publish(ChangeRecord.retire(replication.nextSequence(), change.itemIndex,
+                                    change.itemId));
+                        }
+                        break;
+                    case MOVE:
+                        moveItem(itemAt(change), change.text);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (AssignmentLimitExceededException | ItemUnavailableException | IllegalArgumentException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static InventoryItem itemAt(ChangeRecord change) {
+        int index = change.itemIndex;
+        if (index < 0 || index >= inventoryCount || !inventory[index].getId().equals(change.itemId)) {
+            throw new IllegalStateException("item " + change.itemId + " is not at position " + index);
+        }
+        return inventory[index];
+    }
+
+    private static StaffMember staffAt(ChangeRecord change) {
+        int index = change.staffIndex;
+        if (index < 0 || index >= staffCount || !staffMembers[index].getStaffId().equals(change.staffId)) {
+            throw new IllegalStateException("staff " + change.staffId + " is not at position " + index);
         }
-        InventoryItem[] result = new InventoryItem[count];
-        int idx = 0;
+        return staffMembers[index];
+    }
+
+    /**
+     * Returns the position of the given live item in the inventory array, or
+     * -1 if it is not there. Must be called while holding STORE_LOCK.
+     */
+    private static int indexOfItem(InventoryItem item) {
         for (int i = 0; i < inventoryCount; i++) {
-            if (inventory[i] != null && inventory[i].getName().equalsIgnoreCase(name)) {
-                result[idx++] = inventory[i];
+            if (inventory[i] == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds a staff member by ID using a simple for loop.
+     */
+    static StaffMember findStaffById(String id) {
+        synchronized (STORE_LOCK) {
+            for (int i = 0; i < staffCount; i++) {
+                if (staffMembers[i] != null && staffMembers[i].getStaffId().equalsIgnoreCase(id)) {
+                    return staffMembers[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Finds a live inventory item by its ID, for use by operations that modify
+     * it. Searches and reports use {@link #snapshot()} instead.
+     */
+    static InventoryItem findItemById(String id) {
+        synchronized (STORE_LOCK) {
+            for (int i = 0; i < inventoryCount; i++) {
+                if (inventory[i] != null && inventory[i].getId().equalsIgnoreCase(id)) {
+                    return inventory[i];
+                }
             }
+            return null;
         }
-        return result;
     }
 }
\ No newline at end of file
@@ -0,0 +1,421 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load-test harness for the inventory system. The simulator builds a
+ * synthetic campus (staff, a mix of equipment, furniture and lab equipment
+ * spread over the rooms of ten buildings, and a spread of warranty end
+ * dates) and then drives a weighted mix of add, assign, return, search and
+ * report operations from several threads through the same operations used
+ * by the console menu. When the run finishes it
+ * prints the throughput and the p50/p99/p99.9 latency of every operation.
+ *
+ * Options are given as {@code --name=value}:
+ * <pre>
+ *   --staff=200                    number of staff members
+ *   --items=2000                   number of items in the initial inventory
+ *   --item-mix=50,30,20            equipment, furniture, lab equipment weights
+ *   --expired=0.25                 share of items whose warranty has already expired
+ *   --threads=8                    number of worker threads
+ *   --operations=20000             total number of operations across all threads
+ *   --mix=add:5,assign:30,return:25,search:30,report:10
+ *   --seed=42                      random seed for repeatable runs
+ * </pre>
+ */
+public class WorkloadSimulator {
+
+    /**
+     * Operations the simulator can perform, in the order used for the mix.
+     */
+    enum Operation {
+        ADD, ASSIGN, RETURN, SEARCH, REPORT
+    }
+
+    private static final String[] EQUIPMENT_NAMES = { "Laptop", "Projector", "Tablet", "Camera", "Monitor" };
+    private static final String[] BRANDS = { "Dell", "HP", "Lenovo", "Apple", "Epson", "Canon" };
+    private static final String[] FURNITURE_NAMES = { "Desk", "Chair", "Cabinet", "Bookshelf", "Table" };
+    private static final String[] MATERIALS = { "Wood", "Metal", "Plastic", "Glass" };
+    private static final String[] LAB_NAMES = { "Microscope", "Spectrometer", "Centrifuge", "Oscilloscope" };
+    private static final String[] LAB_TYPES = { "Chemistry", "Physics", "Biology" };
+
+    private int staff = 200;
+    private int items = 2000;
+    private int[] itemMix = { 50, 30, 20 };
+    private double expiredShare = 0.25;
+    private int threads = 8;
+    private int operations = 20_000;
+    private int[] operationMix = { 5, 30, 25, 30, 10 };
+    private long seed = 42;
+
+    private final AtomicInteger nextItemNumber = new AtomicInteger();
+
+    public static void main(String[] args) {
+        WorkloadSimulator simulator = new WorkloadSimulator();
+        try {
+            simulator.parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid option: " + e.getMessage());
+            return;
+        }
+        simulator.buildCampus();
+        simulator.run();
+    }
+
+    private void parseOptions(String[] args) {
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException(arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "staff":
+                    staff = Integer.parseInt(value);
+                    break;
+                case "items":
+                    items = Integer.parseInt(value);
+                    break;
+                case "item-mix":
+                    itemMix = parseWeights(value, 3);
+                    break;
+                case "expired":
+                    expiredShare = Double.parseDouble(value);
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "operations":
+                    operations = Integer.parseInt(value);
+                    break;
+                case "mix":
+                    operationMix = parseOperationMix(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(arg);
+            }
+        }
+        if (staff < 1 || items < 1 || threads < 1 || operations < 1 || expiredShare < 0 || expiredShare > 1) {
+            throw new IllegalArgumentException("sizes must be positive and --expired between 0 and 1");
+        }
+    }
+
+    private static int[] parseWeights(String value, int count) {
+        String[] parts = value.split(",");
+        if (parts.length != count) {
+            throw new IllegalArgumentException(value);
+        }
+        int[] weights = new int[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = Integer.parseInt(parts[i].trim());
+        }
+        return weights;
+    }
+
+    private static int[] parseOperationMix(String value) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException(value);
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase());
+            weights[operation.ordinal()] = Integer.parseInt(pair[1].trim());
+        }
+        return weights;
+    }
+
+    /**
+     * Replaces the inventory with a synthetic campus. The inventory is sized
+     * so that every ADD operation of the run can succeed.
+     */
+    private void buildCampus() {
+        UniversityInventorySystem.resetStore(items + operations, staff);
+        Random random = new Random(seed);
+        for (int i = 0; i < staff; i++) {
+            UniversityInventorySystem.registerStaff(new StaffMember(staffId(i), "Staff Member " + (i + 1)));
+        }
+        for (int i = 0; i < items; i++) {
+            UniversityInventorySystem.addItem(newItem(random), randomRoom(random));
+        }
+        System.out.printf("Campus: %d staff, %d items (mix %s, %.0f%% expired warranties)%n", staff, items,
+                Arrays.toString(itemMix), expiredShare * 100);
+    }
+
+    private static String staffId(int number) {
+        return String.format("S%05d", number);
+    }
+
+    private static String itemId(int number) {
+        return String.format("ITM%07d", number);
+    }
+
+    private InventoryItem newItem(Random random) {
+        String id = itemId(nextItemNumber.getAndIncrement());
+        LocalDate today = LocalDate.now();
+        LocalDate purchaseDate = today.minusDays(30 + random.nextInt(8 * 365));
+        LocalDate warrantyEnd = random.nextDouble() < expiredShare
+                ? today.minusDays(1 + random.nextInt(3 * 365))
+                : today.plusDays(1 + random.nextInt(4 * 365));
+        double price = 50 + random.nextInt(5000);
+        switch (pick(random, itemMix)) {
+            case 0:
+                return new Equipment(id, pickName(random, EQUIPMENT_NAMES), pickName(random, BRANDS), purchaseDate,
+                        price, warrantyEnd);
+            case 1:
+                return new Furniture(id, pickName(random, FURNITURE_NAMES), pickName(random, MATERIALS), purchaseDate,
+                        price, warrantyEnd);
+            default:
+                return new LabEquipment(id, pickName(random, LAB_NAMES), pickName(random, LAB_TYPES), purchaseDate,
+                        price, warrantyEnd);
+        }
+    }
+
+    /**
+     * Picks one of the rooms on the synthetic campus: ten buildings with four
+     * floors of twenty rooms each.
+     */
+    private static String randomRoom(Random random) {
+        int floor = 1 + random.nextInt(4);
+        return String.format("Main/Building %02d/%d/%d%02d", 1 + random.nextInt(10), floor, floor,
+                1 + random.nextInt(20));
+    }
+
+    private static String pickName(Random random, String[] names) {
+        return names[random.nextInt(names.length)];
+    }
+
+    /**
+     * Picks an index with probability proportional to its weight.
+     */
+    private static int pick(Random random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(Math.max(total, 1));
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * Runs the workload on the configured number of threads and prints the
+     * results.
+     */
+    private void run() {
+        Worker[] workers = new Worker[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] pool = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int share = operations / threads + (t < operations % threads ? 1 : 0);
+            workers[t] = new Worker(new Random(seed + t + 1), share, start);
+            pool[t] = new Thread(workers[t], "simulator-" + t);
+            pool[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : pool) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.out.println("Interrupted while waiting for the workload to finish.");
+                return;
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        printResults(workers, elapsed);
+    }
+
+    private void printResults(Worker[] workers, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Ran %d operations on %d threads in %.2f s: %.0f ops/s%n", operations, threads, seconds,
+                operations / seconds);
+        System.out.printf("%-8s %10s %9s %12s %12s %12s%n", "op", "count", "failed", "p50 (us)", "p99 (us)",
+                "p99.9 (us)");
+        long[] all = new long[0];
+        int failedTotal = 0;
+        for (Operation operation : Operation.values()) {
+            int count = 0;
+            int failed = 0;
+            for (Worker worker : workers) {
+                count += worker.counts[operation.ordinal()];
+                failed += worker.failures[operation.ordinal()];
+            }
+            long[] latencies = new long[count];
+            int pos = 0;
+            for (Worker worker : workers) {
+                int n = worker.counts[operation.ordinal()];
+                System.arraycopy(worker.latencies[operation.ordinal()], 0, latencies, pos, n);
+                pos += n;
+            }
+            failedTotal += failed;
+            printRow(operation.name().toLowerCase(), latencies, failed);
+            long[] merged = Arrays.copyOf(all, all.length + latencies.length);
+            System.arraycopy(latencies, 0, merged, all.length, latencies.length);
+            all = merged;
+        }
+        printRow("all", all, failedTotal);
+        System.out.printf("Final state: %d items, %d staff%n", UniversityInventorySystem.getInventoryCount(),
+                UniversityInventorySystem.getStaffCount());
+    }
+
+    private static void printRow(String label, long[] latencies, int failed) {
+        if (latencies.length == 0) {
+            System.out.printf("%-8s %10d %9d %12s %12s %12s%n", label, 0, failed, "-", "-", "-");
+            return;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %10d %9d %12.1f %12.1f %12.1f%n", label, latencies.length, failed,
+                percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3,
+                percentile(latencies, 0.999) / 1e3);
+    }
+
+    /**
+     * Returns the nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    /**
+     * Performs a share of the workload on one thread and records the latency
+     * of every operation it runs. A failed operation is one that the console
+     * would report as a failure, such as assigning an unavailable item.
+     */
+    private class Worker implements Runnable {
+        private final Random random;
+        private final int share;
+        private final CountDownLatch start;
+        private final long[][] latencies = new long[Operation.values().length][];
+        private final int[] counts = new int[Operation.values().length];
+        private final int[] failures = new int[Operation.values().length];
+        // Each worker discards report output through its own stream, as PrintStream locks per stream
+        private final PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+
+        Worker(Random random, int share, CountDownLatch start) {
+            this.random = random;
+            this.share = share;
+            this.start = start;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new long[16];
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Operation[] operationsByIndex = Operation.values();
+            for (int i = 0; i < share; i++) {
+                Operation operation = operationsByIndex[pick(random, operationMix)];
+                long begin = System.nanoTime();
+                boolean ok = perform(operation);
+                record(operation, System.nanoTime() - begin, ok);
+            }
+        }
+
+        private boolean perform(Operation operation) {
+            switch (operation) {
+                case ADD:
+                    return UniversityInventorySystem.addItem(newItem(random), randomRoom(random));
+                case ASSIGN: {
+                    StaffMember staffMember = UniversityInventorySystem.findStaffById(randomStaffId());
+                    InventoryItem item = UniversityInventorySystem.findItemById(randomItemId());
+                    if (staffMember == null || item == null) {
+                        return false;
+                    }
+                    try {
+                        UniversityInventorySystem.assignItem(staffMember, item);
+                        return true;
+                    } catch (AssignmentLimitExceededException | ItemUnavailableException e) {
+                        return false;
+                    }
+                }
+                case RETURN: {
+                    StaffMember staffMember = UniversityInventorySystem.findStaffById(randomStaffId());
+                    if (staffMember == null) {
+                        return false;
+                    }
+                    InventoryItem[] held = staffMember.getAssignedItems();
+                    if (held.length == 0) {
+                        return false;
+                    }
+                    InventoryItem item = UniversityInventorySystem.findItemById(
+                            held[random.nextInt(held.length)].getId());
+                    return item != null && UniversityInventorySystem.returnItem(staffMember, item);
+                }
+                case SEARCH:
+                    if (random.nextBoolean()) {
+                        return UniversityInventorySystem.snapshot().findItemById(randomItemId()) != null;
+                    }
+                    return UniversityInventorySystem.snapshot().findItemsByName(randomItemName()).length > 0;
+                case REPORT:
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            UniversityInventorySystem.reportInventoryList(discard);
+                            break;
+                        case 1:
+                            UniversityInventorySystem.reportExpiredWarranties(discard);
+                            break;
+                        case 2:
+                            UniversityInventorySystem.reportCategoryCounts(discard);
+                            break;
+                        default:
+                            UniversityInventorySystem.reportAssignmentSummary(discard);
+                    }
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private String randomStaffId() {
+            return staffId(random.nextInt(staff));
+        }
+
+        private String randomItemId() {
+            return itemId(random.nextInt(nextItemNumber.get()));
+        }
+
+        private String randomItemName() {
+            switch (random.nextInt(3)) {
+                case 0:
+                    return pickName(random, EQUIPMENT_NAMES);
+                case 1:
+                    return pickName(random, FURNITURE_NAMES);
+                default:
+                    return pickName(random, LAB_NAMES);
+            }
+        }
+
+        private void record(Operation operation, long nanos, boolean ok) {
+            int index = operation.ordinal();
+            if (counts[index] == latencies[index].length) {
+                latencies[index] = Arrays.copyOf(latencies[index], latencies[index].length * 2);
+            }
+            latencies[index][counts[index]++] = nanos;
+            if (!ok) {
+                failures[index]++;
+            }
+        }
+    }
+}